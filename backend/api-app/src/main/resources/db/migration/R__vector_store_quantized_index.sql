@@ -0,0 +1,36 @@
+-- ========================
+-- LMS Vector Store quantized index for the configured mode
+-- ========================
+-- Compact HNSW index over a quantized copy of the embedding, for the mode lms.vector-index.quantization selects
+-- (none, halfvec or binary), passed in as the vectorIndexQuantization placeholder. Only that index is built; an
+-- index left from a previous mode is dropped. The quantized vectors live only in the index; the table keeps full
+-- precision for the exact re-rank.
+-- halfvec: 2 bytes per dimension (half the size of the full index), near-identical ranking.
+-- binary: 1 bit per dimension (1/32 of the full index), coarse ranking that needs a wider re-rank window.
+-- The checksum of this migration includes the placeholder value, so Flyway runs it again whenever the mode changes.
+-- The index is built inside the migration and blocks writes to vector_store meanwhile; on a large table build it
+-- beforehand with CREATE INDEX CONCURRENTLY (same name and definition as below) and this migration keeps it.
+DO $$
+BEGIN
+    IF '${vectorIndexQuantization}' <> 'halfvec' THEN
+        DROP INDEX IF EXISTS lms_svc.idx_vector_store_embedding_halfvec;
+    END IF;
+
+    IF '${vectorIndexQuantization}' <> 'binary' THEN
+        DROP INDEX IF EXISTS lms_svc.idx_vector_store_embedding_binary;
+    END IF;
+
+    IF '${vectorIndexQuantization}' = 'halfvec' THEN
+        CREATE INDEX IF NOT EXISTS idx_vector_store_embedding_halfvec ON lms_svc.vector_store
+            USING HNSW ((embedding::halfvec(1536)) halfvec_cosine_ops);
+    END IF;
+
+    IF '${vectorIndexQuantization}' = 'binary' THEN
+        CREATE INDEX IF NOT EXISTS idx_vector_store_embedding_binary ON lms_svc.vector_store
+            USING HNSW ((binary_quantize(embedding)::bit(1536)) bit_hamming_ops);
+    END IF;
+END
+$$;
+
+-- Once a quantized mode is in use, the full-precision index can be dropped to reclaim shared_buffers:
+-- DROP INDEX lms_svc.vector_store_embedding_idx;
@@ -0,0 +1,27 @@
+-- ========================
+-- LMS Embedding Job: one queued job per course
+-- ========================
+-- A course has at most one job waiting to run, pending or retrying, so a retry and a new edit cannot be claimed
+-- by two workers at once. Jobs that lose out to a newer queued job of their course end as superseded.
+UPDATE lms_svc.embedding_job kept
+SET next_attempt_on = queued.next_attempt_on,
+    modified_on = now()
+FROM (SELECT course_id, MIN(id) AS id, MIN(next_attempt_on) AS next_attempt_on
+      FROM lms_svc.embedding_job
+      WHERE status IN ('pending', 'retrying')
+      GROUP BY course_id
+      HAVING COUNT(*) > 1) queued
+WHERE kept.id = queued.id;
+
+UPDATE lms_svc.embedding_job duplicate
+SET status = 'superseded',
+    modified_on = now()
+FROM lms_svc.embedding_job kept
+WHERE duplicate.course_id = kept.course_id
+  AND duplicate.status IN ('pending', 'retrying')
+  AND kept.status IN ('pending', 'retrying')
+  AND duplicate.id > kept.id;
+
+DROP INDEX IF EXISTS lms_svc.uq_embedding_job_pending_course;
+CREATE UNIQUE INDEX uq_embedding_job_queued_course ON lms_svc.embedding_job (course_id)
+    WHERE status IN ('pending', 'retrying');
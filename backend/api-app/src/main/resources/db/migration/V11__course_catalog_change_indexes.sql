@@ -0,0 +1,6 @@
+-- ========================
+-- LMS Course catalog change detection indexes
+-- ========================
+-- Each instance looks for courses modified and enrollments created since its last check, every few seconds.
+CREATE INDEX IF NOT EXISTS idx_course_modified_on ON lms_svc.course (modified_on);
+CREATE INDEX IF NOT EXISTS idx_user_course_map_created_on ON lms_svc.user_course_map (created_on);
@@ -0,0 +1,9 @@
+-- ========================
+-- LMS Vector Store chunks
+-- ========================
+-- Each course is embedded as several chunks (course details and one or more per topic).
+-- chunk_key identifies the chunk within its reference and content_hash lets unchanged chunks be skipped.
+ALTER TABLE lms_svc.vector_store ADD COLUMN IF NOT EXISTS chunk_key VARCHAR(255);
+ALTER TABLE lms_svc.vector_store ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_vector_store_reference ON lms_svc.vector_store (reference);
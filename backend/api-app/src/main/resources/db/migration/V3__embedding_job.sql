@@ -0,0 +1,25 @@
+-- ========================
+-- LMS Embedding Job (transactional outbox)
+-- ========================
+-- Written in the same transaction as course and topic changes and drained by the background embedding worker.
+-- status: pending -> processing -> completed, or retrying with backoff until dead.
+CREATE SEQUENCE IF NOT EXISTS lms_svc.embedding_job_seq START 1 INCREMENT 1;
+
+CREATE TABLE lms_svc.embedding_job (
+    id BIGINT NOT NULL DEFAULT NEXTVAL('lms_svc.embedding_job_seq'),
+    course_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_on TIMESTAMPTZ NOT NULL,
+    last_error TEXT,
+    created_on TIMESTAMPTZ,
+    modified_on TIMESTAMPTZ,
+    CONSTRAINT course_fkey FOREIGN KEY (course_id)
+        REFERENCES lms_svc.course (id),
+    CONSTRAINT embedding_job_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_embedding_job_status_next_attempt ON lms_svc.embedding_job (status, next_attempt_on);
+
+-- At most one pending job per course, so bursts of edits collapse into a single refresh.
+CREATE UNIQUE INDEX uq_embedding_job_pending_course ON lms_svc.embedding_job (course_id) WHERE status = 'pending';
@@ -0,0 +1,6 @@
+-- ========================
+-- LMS User Course Map indexes
+-- ========================
+-- Enrollment counts are aggregated per course and learner dashboards look enrollments up per user.
+CREATE INDEX IF NOT EXISTS idx_user_course_map_course_id ON lms_svc.user_course_map (course_id);
+CREATE INDEX IF NOT EXISTS idx_user_course_map_user_id ON lms_svc.user_course_map (user_id);
@@ -0,0 +1,9 @@
+-- ========================
+-- LMS Course keyset pagination indexes
+-- ========================
+-- Course pages are read in id order after a cursor, optionally filtered by status, author or name prefix.
+CREATE INDEX IF NOT EXISTS idx_course_status_id ON lms_svc.course (status, id);
+CREATE INDEX IF NOT EXISTS idx_course_author_id_id ON lms_svc.course (author_id, id);
+
+-- Companion to idx_course_name for case-insensitive prefix filters (LOWER(name) LIKE 'prefix%').
+CREATE INDEX IF NOT EXISTS idx_course_name_lower_prefix ON lms_svc.course (LOWER(name) text_pattern_ops);
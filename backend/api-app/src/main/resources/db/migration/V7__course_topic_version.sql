@@ -0,0 +1,6 @@
+-- ========================
+-- LMS Course and Topic versions
+-- ========================
+-- Optimistic-locking versions, incremented by Hibernate on every update and used to derive HTTP ETags.
+ALTER TABLE lms_svc.course ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE lms_svc.topic ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
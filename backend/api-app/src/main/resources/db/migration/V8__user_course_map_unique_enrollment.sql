@@ -0,0 +1,12 @@
+-- ========================
+-- LMS User Course Map unique enrollment
+-- ========================
+-- A learner is enrolled in a course at most once; bulk enrollment relies on ON CONFLICT DO NOTHING.
+DELETE FROM lms_svc.user_course_map duplicate
+USING lms_svc.user_course_map kept
+WHERE duplicate.course_id = kept.course_id
+  AND duplicate.user_id = kept.user_id
+  AND duplicate.id > kept.id;
+
+ALTER TABLE lms_svc.user_course_map
+    ADD CONSTRAINT uk_user_course_map_course_id_user_id UNIQUE (course_id, user_id);
@@ -0,0 +1,7 @@
+-- ========================
+-- LMS Course image variants
+-- ========================
+-- Resized, recompressed copies of the course photo; NULL when no variant could be generated (e.g. SVG).
+ALTER TABLE lms_svc.course ADD COLUMN IF NOT EXISTS thumbnail_key VARCHAR(255);
+ALTER TABLE lms_svc.course ADD COLUMN IF NOT EXISTS card_key VARCHAR(255);
+ALTER TABLE lms_svc.course ADD COLUMN IF NOT EXISTS hero_key VARCHAR(255);
@@ -0,0 +1,108 @@
+package net.breezeware.learning.management.system.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executors used by the service layer for work that must not run on request
+ * threads.
+ * <p>
+ * With {@code spring.threads.virtual.enabled}, Spring Boot serves requests on
+ * virtual threads and these executors start a virtual thread per task instead
+ * of keeping a platform thread pool. Request concurrency is then no longer
+ * capped by the Tomcat thread pool, so the executors are capped by the
+ * resources their tasks hold: the embedding workers take at most half of the
+ * Hikari pool, leaving the rest for requests. Virtual threads need a Java 21
+ * runtime.
+ */
+@Configuration
+@Slf4j
+public class ExecutorConfiguration {
+
+    private final boolean virtualThreads;
+    private final int connectionPoolSize;
+
+    public ExecutorConfiguration(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("spring.threads.virtual.enabled requires Java 21, but the runtime is "
+                    + Runtime.version());
+        }
+
+        this.virtualThreads = virtualThreads;
+        this.connectionPoolSize = connectionPoolSize;
+    }
+
+    /**
+     * Worker pool that processes embedding jobs drained from the outbox. Courses
+     * of a claimed batch beyond the number of workers wait in the queue, which
+     * is bounded by {@code lms.embedding.jobs.batch-size}.
+     * @param  poolSize the number of workers
+     * @return          the executor
+     */
+    @Bean(name = "embeddingJobExecutor")
+    public AsyncTaskExecutor embeddingJobExecutor(@Value("${lms.embedding.jobs.workers:4}") int poolSize) {
+        if (virtualThreads) {
+            int concurrencyLimit = Math.max(1, Math.min(poolSize, connectionPoolSize / 2));
+            return virtualThreadExecutor("embedding-job-", concurrencyLimit);
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("embedding-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Pool that uploads course photos and their variants while the request thread
+     * writes the course. When the pool is saturated the upload runs on the
+     * request thread instead; with virtual threads the request thread waits for a
+     * free slot.
+     * @param  poolSize the number of concurrent uploads
+     * @return          the executor
+     */
+    @Bean(name = "courseUploadExecutor")
+    public AsyncTaskExecutor courseUploadExecutor(@Value("${lms.storage.upload.max-concurrent:8}") int poolSize) {
+        if (virtualThreads) {
+            return virtualThreadExecutor("course-upload-", poolSize);
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(0);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("course-upload-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Creates an executor that runs each task on a new virtual thread. Submitters
+     * block once {@code concurrencyLimit} tasks are running.
+     * @param  threadNamePrefix the prefix of the thread names
+     * @param  concurrencyLimit the maximum number of concurrent tasks
+     * @return                  the executor
+     */
+    private static SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix, int concurrencyLimit) {
+        log.info("Using virtual threads for {} executor with a concurrency limit of {}", threadNamePrefix,
+                concurrencyLimit);
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setTaskTerminationTimeout(30_000);
+        return executor;
+    }
+}
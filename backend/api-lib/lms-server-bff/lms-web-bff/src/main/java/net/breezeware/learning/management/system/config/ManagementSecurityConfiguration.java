@@ -0,0 +1,45 @@
+package net.breezeware.learning.management.system.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * Serves the actuator endpoints, health and the Prometheus scrape endpoint,
+ * on {@code management.server.port} without a token. That port is meant for
+ * probes and scrapers inside the network and must not be routed by the public
+ * load balancer; the application port keeps requiring authentication for
+ * everything outside {@code dynamo.auth.http.allowed-endpoints}.
+ */
+@Configuration
+public class ManagementSecurityConfiguration {
+
+    /**
+     * Permits requests received on the management port, ahead of the Dynamo Auth
+     * filter chain that handles the application port.
+     * @param  http           the security builder
+     * @param  managementPort the management port
+     * @param  serverPort     the application port
+     * @return                the filter chain
+     * @throws Exception      if the filter chain cannot be built
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public SecurityFilterChain managementSecurityFilterChain(HttpSecurity http,
+            @Value("${management.server.port}") int managementPort, @Value("${server.port}") int serverPort)
+            throws Exception {
+        if (managementPort == serverPort) {
+            // Otherwise every application endpoint would be served without a token
+            throw new IllegalStateException("management.server.port must differ from server.port " + serverPort);
+        }
+
+        return http.securityMatcher(request -> request.getLocalPort() == managementPort)
+                .authorizeHttpRequests(requests -> requests.anyRequest().permitAll())
+                .csrf(AbstractHttpConfigurer::disable).build();
+    }
+}
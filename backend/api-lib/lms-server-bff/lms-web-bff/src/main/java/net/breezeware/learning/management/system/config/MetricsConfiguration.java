@@ -0,0 +1,43 @@
+package net.breezeware.learning.management.system.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.common.KeyValues;
+
+/**
+ * Metrics shared by all endpoints. Request timings are the standard
+ * {@code http.server.requests} meters, which are recorded per URI template,
+ * method and status; this configuration adds the handling controller as a
+ * {@code controller} tag so that dashboards can group endpoints by controller.
+ * Percentile histograms and the Prometheus endpoint are enabled through the
+ * {@code management.*} properties.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    /**
+     * Adds the simple name of the handling controller to the request
+     * observations, or {@code none} for requests not handled by a controller.
+     * @return the observation convention
+     */
+    @Bean
+    public ServerRequestObservationConvention controllerTaggingObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+                String controller = handler instanceof HandlerMethod handlerMethod
+                        ? handlerMethod.getBeanType().getSimpleName()
+                        : "none";
+                return super.getLowCardinalityKeyValues(context).and("controller", controller);
+            }
+        };
+    }
+}
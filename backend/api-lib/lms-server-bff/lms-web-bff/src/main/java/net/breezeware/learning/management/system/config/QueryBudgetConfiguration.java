@@ -0,0 +1,69 @@
+package net.breezeware.learning.management.system.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import org.hibernate.cfg.AvailableSettings;
+
+import net.breezeware.learning.management.system.util.StatementCounter;
+
+import lombok.extern.slf4j.Slf4j;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the SQL statements issued while handling each API request and reports
+ * requests that exceed {@code lms.query-budget.max-statements}. A request over
+ * budget usually means a lazy association is being loaded row by row instead
+ * of through a fetch plan. The list endpoints are also held to this budget by
+ * {@code QueryBudgetTest}, which fails the build instead of logging.
+ */
+@Configuration
+@Slf4j
+@ConditionalOnProperty(name = "lms.query-budget.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryBudgetConfiguration implements WebMvcConfigurer {
+
+    @Value("${lms.query-budget.max-statements:8}")
+    int maxStatements;
+
+    /**
+     * Registers the statement counter with Hibernate.
+     * @return the customizer
+     */
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                StatementCounter.reset();
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                    Exception ex) {
+                int statements = StatementCounter.count();
+                StatementCounter.clear();
+                if (statements > maxStatements && handler instanceof HandlerMethod handlerMethod) {
+                    log.warn("{} {} ({}) issued {} SQL statements, over the budget of {}", request.getMethod(),
+                            request.getRequestURI(), handlerMethod.getShortLogMessage(), statements, maxStatements);
+                }
+
+            }
+        }).addPathPatterns("/api/**");
+    }
+}
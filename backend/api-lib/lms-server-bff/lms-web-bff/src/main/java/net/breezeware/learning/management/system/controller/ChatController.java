@@ -1,10 +1,15 @@
 package net.breezeware.learning.management.system.controller;
 
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import reactor.core.publisher.Flux;
+
+import net.breezeware.learning.management.system.dto.ChatStreamEvent;
 import net.breezeware.learning.management.system.service.api.EmbeddingService;
 
 import lombok.RequiredArgsConstructor;
@@ -42,6 +47,9 @@ public class ChatController {
                         responseCode = "400", description = "Bad Request",
                         content = @Content(mediaType = "application/json",
                                 schema = @Schema(implementation = String.class))),
+                @ApiResponse(responseCode = "429",
+                        description = "Chat model at its concurrency limit; retry after the Retry-After delay",
+                        content = @Content(mediaType = "application/problem+json")),
                 @ApiResponse(responseCode = "500", description = "Internal Server Error",
                         content = @Content(mediaType = "application/json",
                                 schema = @Schema(implementation = String.class))) })
@@ -51,4 +59,30 @@ public class ChatController {
         log.info("Leaving chat()");
         return response;
     }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream a chat response.",
+            description = "Streams a chat response as server-sent events. The first 'sources' event lists the "
+                    + "references of the retrieved documents, followed by 'token' events as the model generates "
+                    + "the answer and a final 'done' or 'error' event.")
+    @Parameter(name = "prompt", description = "The user's input or question for the chat system.", required = true,
+            in = ParameterIn.QUERY, example = "Explain polymorphism in Java.")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Event stream",
+                        content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                                schema = @Schema(implementation = ChatStreamEvent.class))),
+                @ApiResponse(
+                        responseCode = "400", description = "Bad Request",
+                        content = @Content(mediaType = "application/json",
+                                schema = @Schema(implementation = String.class))),
+                @ApiResponse(responseCode = "429",
+                        description = "Chat model at its concurrency limit; retry after the Retry-After delay") })
+    public Flux<ServerSentEvent<ChatStreamEvent>> streamChat(@RequestParam String prompt) {
+        log.info("Entering streamChat() with prompt: {}", prompt);
+        Flux<ServerSentEvent<ChatStreamEvent>> events = embeddingService.streamChatResponse(prompt)
+                .map(event -> ServerSentEvent.builder(event).event(event.getType()).build());
+        log.info("Leaving streamChat()");
+        return events;
+    }
 }
@@ -0,0 +1,56 @@
+package net.breezeware.learning.management.system.controller;
+
+import java.util.List;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import net.breezeware.learning.management.system.util.ConcurrencyLimitExceededException;
+
+import lombok.extern.slf4j.Slf4j;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Answers requests shed by a concurrency limiter with {@code 429 Too Many
+ * Requests} and a {@code Retry-After} header. Ordered ahead of the generic
+ * exception handlers so the status is not turned into a 500. Clients that
+ * only accept an event stream get the status and header without a body.
+ */
+@RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class ConcurrencyLimitExceptionHandler {
+
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<ProblemDetail> handleConcurrencyLimitExceeded(ConcurrencyLimitExceededException e,
+            HttpServletRequest request) {
+        log.info("Rejecting request with 429: {}", e.getMessage());
+        if (acceptsOnlyEventStream(request)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds())).build();
+        }
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS,
+                "The service is busy, please retry after %d seconds".formatted(e.getRetryAfterSeconds()));
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds())).body(problemDetail);
+    }
+
+    private static boolean acceptsOnlyEventStream(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return false;
+        }
+
+        List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+        return mediaTypes.stream().allMatch(MediaType.TEXT_EVENT_STREAM::equalsTypeAndSubtype);
+    }
+}
@@ -4,19 +4,28 @@ import java.util.List;
 import java.util.UUID;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import net.breezeware.learning.management.system.dto.CourseCatalogPageDto;
 import net.breezeware.learning.management.system.dto.CourseDto;
+import net.breezeware.learning.management.system.dto.CoursePageDto;
+import net.breezeware.learning.management.system.dto.CourseQueryDto;
+import net.breezeware.learning.management.system.dto.EnrollmentRequestDto;
+import net.breezeware.learning.management.system.dto.EnrollmentResultDto;
+import net.breezeware.learning.management.system.dto.ResourceVersionDto;
 import net.breezeware.learning.management.system.dto.TopicDto;
 import net.breezeware.learning.management.system.entity.Course;
 import net.breezeware.learning.management.system.service.api.CourseService;
@@ -27,6 +36,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -40,6 +50,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @RequiredArgsConstructor
 public class CourseController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final CourseService courseService;
     private final TopicService topicService;
 
@@ -77,6 +89,8 @@ public class CourseController {
                         content = @Content(mediaType = "application/json")),
                 @ApiResponse(responseCode = "400", description = "Invalid input",
                         content = @Content(mediaType = "application/json")),
+                @ApiResponse(responseCode = "409", description = "Course was modified by another request",
+                        content = @Content(mediaType = "application/json")),
                 @ApiResponse(responseCode = "500", description = "Internal Server Error",
                         content = @Content(mediaType = "application/json")) })
     public ResponseEntity<Course> updateCourse(@PathVariable("course-id") long courseId,
@@ -90,36 +104,59 @@ public class CourseController {
     }
 
     @GetMapping
-    @Operation(summary = "Retrieve all courses", description = "Fetches the list of all available courses.")
+    @Operation(summary = "Retrieve all courses",
+            description = "Fetches one keyset page of the available courses from the in-memory catalog snapshot. "
+                    + "The cursor of the next page is returned in the X-Next-Cursor header and passed back as the "
+                    + "'after' parameter.")
     @ApiResponses(
             value = {
                 @ApiResponse(responseCode = "200", description = "Courses retrieved successfully",
                         content = @Content(mediaType = "application/json",
-                                schema = @Schema(implementation = CourseDto.class))),
+                                array = @ArraySchema(schema = @Schema(implementation = CourseDto.class)))),
+                @ApiResponse(responseCode = "304", description = "Catalog not modified since the given ETag",
+                        content = @Content),
+                @ApiResponse(responseCode = "400", description = "Invalid page size",
+                        content = @Content(mediaType = "application/json")),
                 @ApiResponse(responseCode = "500", description = "Internal Server Error",
                         content = @Content(mediaType = "application/json")) })
-    public List<CourseDto> getAllCourses() {
+    public ResponseEntity<byte[]> getAllCourses(
+            @Parameter(description = "Cursor, page size and filters") CourseQueryDto courseQueryDto,
+            WebRequest webRequest) {
         log.info("Entering getAllCourses()");
-        List<CourseDto> courses = courseService.getAllCourses();
+        CourseCatalogPageDto coursePage = courseService.getAllCourses(courseQueryDto);
+        if (webRequest.checkNotModified(coursePage.getEtag())) {
+            log.info("Leaving getAllCourses() with 304 Not Modified");
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (coursePage.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(coursePage.getNextCursor()));
+        }
+
         log.info("Leaving getAllCourses()");
-        return courses;
+        return response.body(coursePage.getContent());
     }
 
     @GetMapping("/all-course/{user-id}")
     @Operation(summary = "Retrieve all courses for Learners",
-            description = "Fetches the list of all available courses.")
+            description = "Fetches one keyset page of the available courses, flagging those the learner is "
+                    + "enrolled in. The cursor of the next page is returned in the X-Next-Cursor header.")
     @ApiResponses(
             value = {
                 @ApiResponse(responseCode = "200", description = "Courses retrieved successfully",
                         content = @Content(mediaType = "application/json",
                                 schema = @Schema(implementation = CourseDto.class))),
+                @ApiResponse(responseCode = "400", description = "Invalid page size",
+                        content = @Content(mediaType = "application/json")),
                 @ApiResponse(responseCode = "500", description = "Internal Server Error",
                         content = @Content(mediaType = "application/json")) })
-    public List<CourseDto> getAllCoursesForLearners(@PathVariable("user-id") UUID userId) {
+    public ResponseEntity<List<CourseDto>> getAllCoursesForLearners(@PathVariable("user-id") UUID userId,
+            @Parameter(description = "Cursor, page size and filters") CourseQueryDto courseQueryDto) {
         log.info("Entering getAllCoursesForLearners()");
-        List<CourseDto> courses = courseService.getAllCoursesForLearners(userId);
+        CoursePageDto coursePage = courseService.getAllCoursesForLearners(userId, courseQueryDto);
         log.info("Leaving getAllCoursesForLearners()");
-        return courses;
+        return toPageResponse(coursePage);
     }
 
     @GetMapping("/{course-id}")
@@ -129,12 +166,20 @@ public class CourseController {
                 @ApiResponse(responseCode = "200", description = "Course retrieved successfully",
                         content = @Content(mediaType = "application/json",
                                 schema = @Schema(implementation = CourseDto.class))),
+                @ApiResponse(responseCode = "304", description = "Course not modified since the given ETag",
+                        content = @Content),
                 @ApiResponse(responseCode = "404", description = "Course not found",
                         content = @Content(mediaType = "application/json")),
                 @ApiResponse(responseCode = "500", description = "Internal Server Error",
                         content = @Content(mediaType = "application/json")) })
-    public CourseDto getCourseById(@PathVariable("course-id") long id) {
+    public CourseDto getCourseById(@PathVariable("course-id") long id, WebRequest webRequest) {
         log.info("Entering getCourseById()");
+        ResourceVersionDto version = courseService.getCourseVersion(id);
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModified())) {
+            log.info("Leaving getCourseById() with 304 Not Modified");
+            return null;
+        }
+
         CourseDto courseDto = courseService.getCourseById(id);
         log.info("Leaving getCourseById()");
         return courseDto;
@@ -161,17 +206,48 @@ public class CourseController {
                 @ApiResponse(responseCode = "200", description = "Topics retrieved successfully",
                         content = @Content(mediaType = "application/json",
                                 schema = @Schema(implementation = TopicDto.class))),
+                @ApiResponse(responseCode = "304", description = "Topics not modified since the given ETag",
+                        content = @Content),
                 @ApiResponse(responseCode = "404", description = "Course not found",
                         content = @Content(mediaType = "application/json")),
                 @ApiResponse(responseCode = "500", description = "Internal Server Error",
                         content = @Content(mediaType = "application/json")) })
-    public List<TopicDto> getTopicsByCourseId(@PathVariable("course-id") long courseId) {
+    public List<TopicDto> getTopicsByCourseId(@PathVariable("course-id") long courseId, WebRequest webRequest) {
         log.info("Entering getTopicsByCourseId()");
+        if (webRequest.checkNotModified(topicService.getTopicsVersion(courseId).getEtag())) {
+            log.info("Leaving getTopicsByCourseId() with 304 Not Modified");
+            return null;
+        }
+
         List<TopicDto> topics = topicService.getTopicsByCourseId(courseId);
         log.info("Leaving getTopicsByCourseId()");
         return topics;
     }
 
+    @PostMapping("/{course-id}/enrollments")
+    @Operation(summary = "Enroll learners into a course",
+            description = "Enrolls a cohort of learners into the given course and reports the outcome for each "
+                    + "user. Learners who are already enrolled are left unchanged, so the request can be retried.")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Enrollment outcomes",
+                        content = @Content(mediaType = "application/json",
+                                array = @ArraySchema(schema = @Schema(implementation = EnrollmentResultDto.class)))),
+                @ApiResponse(responseCode = "400", description = "Empty or oversized list of users",
+                        content = @Content(mediaType = "application/json")),
+                @ApiResponse(responseCode = "404", description = "Course not found",
+                        content = @Content(mediaType = "application/json")),
+                @ApiResponse(responseCode = "500", description = "Internal Server Error",
+                        content = @Content(mediaType = "application/json")) })
+    public List<EnrollmentResultDto> enrollLearners(@PathVariable("course-id") long courseId,
+            @RequestBody EnrollmentRequestDto enrollmentRequestDto) {
+        log.info("Entering enrollLearners()");
+        List<EnrollmentResultDto> results =
+                courseService.enrollLearners(courseId, enrollmentRequestDto.getUserIds());
+        log.info("Leaving enrollLearners()");
+        return results;
+    }
+
     @PostMapping("/{course-id}/{user-id}")
     @Operation(summary = "Enroll a learner into a course", description = "Enrolls a learner into the given course.")
     @ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Learner enrolled successfully"),
@@ -203,4 +279,13 @@ public class CourseController {
         log.info("Leaving learnerEnrolledCourses()");
         return courseDtos;
     }
+
+    private ResponseEntity<List<CourseDto>> toPageResponse(CoursePageDto coursePage) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (coursePage.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(coursePage.getNextCursor()));
+        }
+
+        return response.body(coursePage.getCourses());
+    }
 }
@@ -1,6 +1,9 @@
 package net.breezeware.learning.management.system.controller;
 
+import java.util.List;
+
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -8,9 +11,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
+import net.breezeware.learning.management.system.dto.ResourceVersionDto;
 import net.breezeware.learning.management.system.dto.TopicDto;
 import net.breezeware.learning.management.system.service.api.TopicService;
 
@@ -19,6 +26,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -51,6 +59,46 @@ public class TopicController {
         return response;
     }
 
+    @PostMapping(value = "/course/{course-id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Create topics in bulk",
+            description = "Creates all given topics of a course in one transaction and refreshes the course "
+                    + "embeddings once.")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Topics created successfully",
+                        content = @Content(mediaType = "application/json",
+                                array = @ArraySchema(schema = @Schema(implementation = TopicDto.class)))),
+                @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content),
+                @ApiResponse(responseCode = "404", description = "Course not found", content = @Content),
+                @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content) })
+    public List<TopicDto> createTopics(@PathVariable("course-id") long courseId,
+            @RequestBody List<TopicDto> topicDtos) {
+        log.info("Entering createTopics()");
+        List<TopicDto> createdTopics = topicService.createTopics(courseId, topicDtos);
+        log.info("Leaving createTopics()");
+        return createdTopics;
+    }
+
+    @PostMapping(value = "/course/{course-id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import topics from CSV",
+            description = "Creates the topics of a course from a CSV file with a name,description,duration header "
+                    + "row in one transaction and refreshes the course embeddings once.")
+    @ApiResponses(
+            value = {
+                @ApiResponse(responseCode = "200", description = "Topics imported successfully",
+                        content = @Content(mediaType = "application/json",
+                                array = @ArraySchema(schema = @Schema(implementation = TopicDto.class)))),
+                @ApiResponse(responseCode = "400", description = "Invalid CSV file or topics", content = @Content),
+                @ApiResponse(responseCode = "404", description = "Course not found", content = @Content),
+                @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content) })
+    public List<TopicDto> importTopics(@PathVariable("course-id") long courseId,
+            @Parameter(description = "CSV file of topics", required = true) @RequestPart("file") MultipartFile file) {
+        log.info("Entering importTopics()");
+        List<TopicDto> createdTopics = topicService.importTopics(courseId, file);
+        log.info("Leaving importTopics()");
+        return createdTopics;
+    }
+
     @PutMapping("/{topic-id}")
     @Operation(summary = "Update an existing topic",
             description = "Updates a topic by its ID and returns updated details.")
@@ -61,6 +109,8 @@ public class TopicController {
                                 schema = @Schema(implementation = TopicDto.class))),
                 @ApiResponse(responseCode = "404", description = "Topic not found", content = @Content),
                 @ApiResponse(responseCode = "400", description = "Invalid input", content = @Content),
+                @ApiResponse(responseCode = "409", description = "Topic was modified by another request",
+                        content = @Content),
                 @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content) })
     public TopicDto updateTopic(
             @Parameter(description = "ID of the topic to update", required = true) @PathVariable("topic-id") long id,
@@ -92,11 +142,19 @@ public class TopicController {
                 @ApiResponse(responseCode = "200", description = "Topic retrieved successfully",
                         content = @Content(mediaType = "application/json",
                                 schema = @Schema(implementation = TopicDto.class))),
+                @ApiResponse(responseCode = "304", description = "Topic not modified since the given ETag",
+                        content = @Content),
                 @ApiResponse(responseCode = "404", description = "Topic not found", content = @Content),
                 @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content) })
     @Parameter(description = "ID of the topic to retrieve", required = true)
-    public TopicDto getTopicById(@PathVariable("topic-id") long id) {
+    public TopicDto getTopicById(@PathVariable("topic-id") long id, WebRequest webRequest) {
         log.info("Entering getTopicById()");
+        ResourceVersionDto version = topicService.getTopicVersion(id);
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModified())) {
+            log.info("Leaving getTopicById() with 304 Not Modified");
+            return null;
+        }
+
         TopicDto topicDto = topicService.getTopicById(id);
         log.info("Leaving getTopicById()");
         return topicDto;
@@ -0,0 +1,38 @@
+package net.breezeware.learning.management.system.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * A single event of a streamed chat response. A stream starts with one
+ * {@code sources} event, continues with {@code token} events as the model
+ * generates text and ends with a {@code done} or {@code error} event.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ChatStreamEvent {
+
+    public static final String SOURCES = "sources";
+    public static final String TOKEN = "token";
+    public static final String DONE = "done";
+    public static final String ERROR = "error";
+
+    @Schema(example = "token", description = "The event type: sources, token, done or error.")
+    private String type;
+
+    @Schema(example = "Polymorphism lets", description = "The generated text fragment or error message.")
+    private String content;
+
+    @Schema(example = "[\"29e9b2c0-2040-4c4e-8320-5c62067db1ad\"]",
+            description = "The references of the documents the answer is based on.")
+    private List<UUID> references;
+}
@@ -0,0 +1,31 @@
+package net.breezeware.learning.management.system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One keyset page of the course catalog, already serialized as a JSON array of
+ * {@link CourseDto} objects.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CourseCatalogPageDto {
+
+    private byte[] content;
+
+    /**
+     * The value to pass as {@code after} to fetch the next page, or {@code null}
+     * if this is the last page.
+     */
+    private Long nextCursor;
+
+    /**
+     * The entity tag of the catalog snapshot the page was read from, without
+     * quotes.
+     */
+    private String etag;
+}
@@ -36,6 +36,18 @@ public class CourseDto {
             example = "Course/29e9b2c0-2040-4c4e-8320-5c62067db1ad.png")
     private String photoKey;
 
+    @Schema(description = "URL of the small thumbnail of the course image, for lists and navigation. Falls back "
+            + "to the original image.", example = "Course/29e9b2c0-2040-4c4e-8320-5c62067db1ad-thumbnail.jpg")
+    private String thumbnailKey;
+
+    @Schema(description = "URL of the catalog card image of the course. Falls back to the original image.",
+            example = "Course/29e9b2c0-2040-4c4e-8320-5c62067db1ad-card.jpg")
+    private String cardKey;
+
+    @Schema(description = "URL of the detail page image of the course. Falls back to the original image.",
+            example = "Course/29e9b2c0-2040-4c4e-8320-5c62067db1ad-hero.jpg")
+    private String heroKey;
+
     @Schema(description = "The current status of the course (e.g., ACTIVE, INACTIVE, ARCHIVED).", example = "ACTIVE")
     private String status;
 
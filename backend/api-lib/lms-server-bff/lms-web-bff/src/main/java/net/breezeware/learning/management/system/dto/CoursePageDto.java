@@ -0,0 +1,26 @@
+package net.breezeware.learning.management.system.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One keyset page of courses and the cursor of the next page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CoursePageDto {
+
+    private List<CourseDto> courses;
+
+    /**
+     * The value to pass as {@code after} to fetch the next page, or {@code null}
+     * if this is the last page.
+     */
+    private Long nextCursor;
+}
@@ -0,0 +1,38 @@
+package net.breezeware.learning.management.system.dto;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Query parameters for listing courses one keyset page at a time. Filters left
+ * empty are not applied.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CourseQueryDto {
+
+    @Schema(description = "The ID of the last course of the previous page, taken from the X-Next-Cursor header.",
+            example = "42")
+    private Long after;
+
+    @Schema(description = "The maximum number of courses to return.", example = "50")
+    private Integer limit;
+
+    @Schema(description = "Only return courses with this status.", example = "published")
+    private String status;
+
+    @Schema(description = "Only return courses by this author.", example = "c38b2827-d3d4-4fc1-b508-90b7f96c58c9")
+    private UUID authorId;
+
+    @Schema(description = "Only return courses whose name starts with this prefix, ignoring case.",
+            example = "Google")
+    private String namePrefix;
+}
@@ -19,4 +19,7 @@ public class EmbeddingDto {
 
     @Schema(example = "f29a44c8-2e94-4891-9b3d-44c0dc0d52c6", description = "The unique referenceId for the content.")
     private UUID referenceId;
+
+    @Schema(example = "topic:12:0", description = "Identifies the chunk within the referenced content.")
+    private String chunkKey;
 }
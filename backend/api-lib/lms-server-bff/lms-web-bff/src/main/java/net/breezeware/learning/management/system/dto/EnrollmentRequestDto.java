@@ -0,0 +1,22 @@
+package net.breezeware.learning.management.system.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EnrollmentRequestDto {
+
+    @Schema(example = "[\"c38b2827-d3d4-4fc1-b508-90b7f96c58c9\"]",
+            description = "The unique IDs of the learners to enroll")
+    private List<UUID> userIds;
+}
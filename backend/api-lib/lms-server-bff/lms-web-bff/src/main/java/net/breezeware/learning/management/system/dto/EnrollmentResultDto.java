@@ -0,0 +1,31 @@
+package net.breezeware.learning.management.system.dto;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EnrollmentResultDto {
+
+    /**
+     * Outcome of enrolling one learner.
+     */
+    public enum Outcome {
+        ENROLLED, ALREADY_ENROLLED, USER_NOT_FOUND
+    }
+
+    @Schema(example = "c38b2827-d3d4-4fc1-b508-90b7f96c58c9", description = "The user unique ID")
+    private UUID userId;
+
+    @Schema(example = "ENROLLED", description = "Whether the learner was enrolled, was already enrolled or "
+            + "does not exist")
+    private Outcome outcome;
+}
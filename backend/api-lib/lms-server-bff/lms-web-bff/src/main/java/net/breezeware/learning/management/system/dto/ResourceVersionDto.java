@@ -0,0 +1,28 @@
+package net.breezeware.learning.management.system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Validators of a resource representation, used to answer HTTP conditional
+ * requests without building the representation.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ResourceVersionDto {
+
+    /**
+     * The strong entity tag, without quotes.
+     */
+    private String etag;
+
+    /**
+     * The last modification time in epoch milliseconds, or {@code -1} if
+     * unknown.
+     */
+    private long lastModified;
+}
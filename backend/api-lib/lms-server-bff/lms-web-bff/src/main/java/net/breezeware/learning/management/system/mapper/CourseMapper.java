@@ -10,9 +10,30 @@ import net.breezeware.learning.management.system.entity.Course;
 public interface CourseMapper {
 
     @Mapping(target = "author", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "thumbnailKey", ignore = true)
+    @Mapping(target = "cardKey", ignore = true)
+    @Mapping(target = "heroKey", ignore = true)
     Course courseDtoToCourse(CourseDto courseDto);
 
     @Mapping(target = "learnersEnrolled", ignore = true)
     @Mapping(target = "authorId", source = "author.uniqueId")
     CourseDto courseToCourseDto(Course course);
+
+    /**
+     * Maps a course and turns its image keys into URLs under the CDN. Image
+     * variants that were not generated fall back to the original image.
+     * @param  course the course
+     * @param  cdnUrl the CDN base URL, ending with a slash
+     * @return        the course DTO
+     */
+    default CourseDto courseToCourseDto(Course course, String cdnUrl) {
+        CourseDto dto = courseToCourseDto(course);
+        String photoKey = dto.getPhotoKey();
+        dto.setPhotoKey(cdnUrl + photoKey);
+        dto.setThumbnailKey(cdnUrl + (dto.getThumbnailKey() == null ? photoKey : dto.getThumbnailKey()));
+        dto.setCardKey(cdnUrl + (dto.getCardKey() == null ? photoKey : dto.getCardKey()));
+        dto.setHeroKey(cdnUrl + (dto.getHeroKey() == null ? photoKey : dto.getHeroKey()));
+        return dto;
+    }
 }
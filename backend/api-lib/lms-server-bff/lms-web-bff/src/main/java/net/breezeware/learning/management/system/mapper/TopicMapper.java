@@ -10,6 +10,7 @@ import net.breezeware.learning.management.system.entity.Topic;
 public interface TopicMapper {
 
     @Mapping(target = "course", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Topic topicDtoToTopic(TopicDto topicDto);
 
     @Mapping(target = "courseId", source = "course.id")
@@ -5,11 +5,14 @@ import java.util.UUID;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import net.breezeware.learning.management.system.dto.CourseCatalogPageDto;
 import net.breezeware.learning.management.system.dto.CourseDto;
+import net.breezeware.learning.management.system.dto.CoursePageDto;
+import net.breezeware.learning.management.system.dto.CourseQueryDto;
+import net.breezeware.learning.management.system.dto.EnrollmentResultDto;
+import net.breezeware.learning.management.system.dto.ResourceVersionDto;
 import net.breezeware.learning.management.system.entity.Course;
 
-import jakarta.transaction.Transactional;
-
 /**
  * Service interface for managing {@link Course} entities. Provides operations
  * for creating, updating, retrieving, deleting, and enrolling learners in
@@ -24,7 +27,6 @@ public interface CourseService {
      * @param  courseDto the course details to create
      * @return           the created {@link Course} entity
      */
-    @Transactional
     Course createCourse(MultipartFile file, CourseDto courseDto);
 
     /**
@@ -35,7 +37,6 @@ public interface CourseService {
      * @param  courseDto the updated course details
      * @return           the updated {@link Course} entity
      */
-    @Transactional
     Course updateCourse(long courseId, MultipartFile file, CourseDto courseDto);
 
     /**
@@ -52,20 +53,46 @@ public interface CourseService {
     CourseDto getCourseById(long id);
 
     /**
-     * Retrieves all courses in the system.
-     * @return a list of {@link CourseDto} objects representing all courses
+     * Retrieves the HTTP validators of a course without loading it.
+     * @param  id the ID of the course
+     * @return    the entity tag and last modification time of the course
      */
-    List<CourseDto> getAllCourses();
+    ResourceVersionDto getCourseVersion(long id);
 
-    List<CourseDto> getAllCoursesForLearners(UUID userId);
+    /**
+     * Retrieves one keyset page of the courses in the system from the catalog
+     * snapshot, already serialized as JSON.
+     * @param  courseQueryDto the cursor, page size and filters
+     * @return                the serialized page and the cursor of the next page
+     */
+    CourseCatalogPageDto getAllCourses(CourseQueryDto courseQueryDto);
 
     /**
-     * Enrolls a learner in a course.
+     * Retrieves one keyset page of the courses in the system, flagging those the
+     * learner is enrolled in.
+     * @param  userId         the UUID of the learner
+     * @param  courseQueryDto the cursor, page size and filters
+     * @return                the page of courses and the cursor of the next page
+     */
+    CoursePageDto getAllCoursesForLearners(UUID userId, CourseQueryDto courseQueryDto);
+
+    /**
+     * Enrolls a learner in a course. Enrolling a learner twice has no effect.
      * @param courseId the ID of the course to enroll in
      * @param userId   the UUID of the learner to enroll
      */
     void enrollCourse(long courseId, UUID userId);
 
+    /**
+     * Enrolls a cohort of learners in a course. Unknown users and existing
+     * enrollments are reported rather than rejected, so the request can be
+     * retried safely.
+     * @param  courseId the ID of the course to enroll in
+     * @param  userIds  the UUIDs of the learners to enroll
+     * @return          the outcome for each distinct user ID, in request order
+     */
+    List<EnrollmentResultDto> enrollLearners(long courseId, List<UUID> userIds);
+
     /**
      * Retrieves all courses in which a learner is enrolled.
      * @param  userId the UUID of the learner
@@ -0,0 +1,16 @@
+package net.breezeware.learning.management.system.service.api;
+
+/**
+ * Service interface for the embedding job outbox. Course and topic changes
+ * enqueue jobs instead of calling the embedding model inline; the jobs are
+ * processed asynchronously by the embedding worker.
+ */
+public interface EmbeddingJobService {
+
+    /**
+     * Enqueues an embedding refresh for a course in the current transaction. A
+     * refresh that is already pending for the course is reused.
+     * @param courseId the ID of the course whose embeddings should be refreshed
+     */
+    void enqueueCourseRefresh(long courseId);
+}
@@ -1,6 +1,13 @@
 package net.breezeware.learning.management.system.service.api;
 
+import java.util.List;
+import java.util.UUID;
+
+import reactor.core.publisher.Flux;
+
+import net.breezeware.learning.management.system.dto.ChatStreamEvent;
 import net.breezeware.learning.management.system.dto.EmbeddingDto;
+import net.breezeware.learning.management.system.dao.VectorStoreMatch;
 
 /**
  * Service interface for handling embeddings and chat responses. Defines methods
@@ -15,10 +22,53 @@ public interface EmbeddingService {
      */
     void documentEmbedding(EmbeddingDto embeddingDto);
 
+    /**
+     * Generates embeddings for the given documents in batched requests and stores
+     * them in the vector store with batch inserts.
+     * @param embeddingDtos The documents to generate embeddings for.
+     */
+    void documentEmbeddings(List<EmbeddingDto> embeddingDtos);
+
+    /**
+     * Synchronizes the stored chunks of a reference with the given chunks,
+     * embedding only chunks that are new or whose content changed.
+     * @param referenceId The reference the chunks belong to.
+     * @param chunks      The complete set of chunks for the reference.
+     */
+    void refreshDocumentChunks(UUID referenceId, List<EmbeddingDto> chunks);
+
+    /**
+     * Deletes all embeddings stored for the given reference.
+     * @param referenceId The reference whose embeddings are deleted.
+     */
+    void deleteEmbeddings(UUID referenceId);
+
     /**
      * Creates a chat response for a given input message.
      * @param  message The user-provided input message.
      * @return         A ChatResponse containing the generated response.
      */
     String createChatResponse(String message);
+
+    /**
+     * Streams a chat response for a given input message. The stream starts with
+     * the references of the retrieved documents, followed by the generated tokens.
+     * A busy chat model is reported by throwing before the stream is returned, so
+     * the request can still be answered with an error status.
+     * @param  message The user-provided input message.
+     * @return         The stream of chat events.
+     */
+    Flux<ChatStreamEvent> streamChatResponse(String message);
+
+    /**
+     * Finds the documents nearest to the embedding of the given query.
+     * @param  query       The text to search for relevant documents.
+     * @param  topK        The maximum number of documents to return.
+     * @param  maxDistance The maximum cosine distance a document may have to be
+     *                     returned.
+     * @param  efSearch    The HNSW ef_search value, or zero to keep the database
+     *                     default.
+     * @return             A list of relevant documents ordered by relevance.
+     */
+    List<VectorStoreMatch> findRelevantDocuments(String query, int topK, double maxDistance, int efSearch);
 }
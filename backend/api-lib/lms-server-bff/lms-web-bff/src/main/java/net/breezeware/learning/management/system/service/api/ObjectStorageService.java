@@ -0,0 +1,27 @@
+package net.breezeware.learning.management.system.service.api;
+
+import java.io.InputStream;
+
+/**
+ * Service interface for storing course documents in the object store. Uploads
+ * are streamed, so an object never has to fit on the heap.
+ */
+public interface ObjectStorageService {
+
+    /**
+     * Streams an object into the document bucket. Large objects are sent as a
+     * multipart upload.
+     * @param key           the object key
+     * @param content       the object content; read to the end but not closed
+     * @param contentLength the exact number of bytes in {@code content}
+     * @param contentType   the MIME type of the object
+     */
+    void upload(String key, InputStream content, long contentLength, String contentType);
+
+    /**
+     * Deletes an object from the document bucket. Deleting a missing object is not
+     * an error.
+     * @param key the object key
+     */
+    void delete(String key);
+}
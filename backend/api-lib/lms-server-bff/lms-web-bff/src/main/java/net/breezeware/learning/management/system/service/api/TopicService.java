@@ -2,6 +2,9 @@ package net.breezeware.learning.management.system.service.api;
 
 import java.util.List;
 
+import org.springframework.web.multipart.MultipartFile;
+
+import net.breezeware.learning.management.system.dto.ResourceVersionDto;
 import net.breezeware.learning.management.system.dto.TopicDto;
 import net.breezeware.learning.management.system.entity.Topic;
 
@@ -21,6 +24,27 @@ public interface TopicService {
     @Transactional
     Topic createTopic(TopicDto topicDto);
 
+    /**
+     * Creates several topics of one course in a single transaction and queues a
+     * single refresh of the course's embeddings.
+     * @param  courseId  the ID of the course the topics belong to
+     * @param  topicDtos the topics to create
+     * @return           the created topics, in request order
+     */
+    @Transactional
+    List<TopicDto> createTopics(long courseId, List<TopicDto> topicDtos);
+
+    /**
+     * Creates the topics of one course from a CSV file with a
+     * {@code name,description,duration} header row, like
+     * {@link #createTopics(long, List)}.
+     * @param  courseId the ID of the course the topics belong to
+     * @param  file     the CSV file
+     * @return          the created topics, in file order
+     */
+    @Transactional
+    List<TopicDto> importTopics(long courseId, MultipartFile file);
+
     /**
      * Updates an existing topic by its ID.
      * @param  topicId  the ID of the topic to update
@@ -43,6 +67,21 @@ public interface TopicService {
      */
     TopicDto getTopicById(long topicId);
 
+    /**
+     * Retrieves the HTTP validators of a topic without loading it.
+     * @param  topicId the ID of the topic
+     * @return         the entity tag and last modification time of the topic
+     */
+    ResourceVersionDto getTopicVersion(long topicId);
+
+    /**
+     * Retrieves the HTTP entity tag of the topic list of a course without loading
+     * the topics.
+     * @param  courseId the ID of the course
+     * @return          the entity tag of the course's topic list
+     */
+    ResourceVersionDto getTopicsVersion(long courseId);
+
     /**
      * Retrieves all topics associated with a specific course.
      * @param  courseId the ID of the course
@@ -0,0 +1,45 @@
+package net.breezeware.learning.management.system.service.api;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import net.breezeware.learning.management.system.dao.VectorStoreMatch;
+import net.breezeware.learning.management.system.entity.VectorStore;
+
+/**
+ * Nearest-neighbour index over the embeddings held in the vector store. The
+ * backend is selected with the {@code lms.vector-index.backend} property.
+ */
+public interface VectorIndex {
+
+    /**
+     * Finds the entries nearest to the given embedding by cosine distance.
+     * @param  queryEmbedding the query embedding
+     * @param  topK           the maximum number of entries to return
+     * @param  maxDistance    the maximum cosine distance of a returned entry
+     * @param  efSearch       the HNSW ef_search value, or zero for the backend
+     *                        default; ignored by backends without HNSW
+     * @return                the matching entries ordered by relevance, without
+     *                        their embeddings
+     */
+    List<VectorStoreMatch> search(float[] queryEmbedding, int topK, double maxDistance, int efSearch);
+
+    /**
+     * Makes a persisted vector store entry visible to searches.
+     * @param vectorStore the persisted entry
+     */
+    void add(VectorStore vectorStore);
+
+    /**
+     * Removes the entries with the given unique IDs.
+     * @param uniqueIds the unique IDs of the entries to remove
+     */
+    void remove(Collection<UUID> uniqueIds);
+
+    /**
+     * Removes all entries belonging to the given reference.
+     * @param reference the reference whose entries are removed
+     */
+    void removeByReference(UUID reference);
+}
@@ -0,0 +1,53 @@
+package net.breezeware.learning.management.system.service.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.chat.prompt.SystemPromptTemplate;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.stereotype.Component;
+
+import net.breezeware.learning.management.system.dao.VectorStoreMatch;
+
+/**
+ * Builds the retrieval-augmented prompt sent to the chat model, shared by the
+ * blocking and streaming chat paths.
+ */
+@Component
+public class ChatPromptFactory {
+
+    private static final String SYSTEM_TEMPLATE = """
+            You are here to provide accurate answers based on the information from the DOCUMENTS section.
+            If you are unsure about something or no document is available,
+            reply politely that you don't know the answer and mention who you are.
+            DOCUMENTS: {documents}
+            """;
+
+    /**
+     * Creates the chat prompt for a user message and the documents retrieved for
+     * it.
+     * @param  message   the user message
+     * @param  documents the relevant documents
+     * @return           the prompt to send to the chat model
+     */
+    public Prompt createPrompt(String message, List<VectorStoreMatch> documents) {
+        // Concatenate the content of all relevant documents
+        String concatenatedDocuments =
+                documents.stream().map(VectorStoreMatch::getContent).collect(Collectors.joining(System.lineSeparator()));
+
+        // Construct the system message with the concatenated document content
+        Message systemMessage =
+                new SystemPromptTemplate(SYSTEM_TEMPLATE).createMessage(Map.of("documents", concatenatedDocuments));
+
+        UserMessage userMessage = new UserMessage(message);
+
+        // Configure OpenAI chat options
+        OpenAiChatOptions openAiChatOptions = OpenAiChatOptions.builder().build();
+
+        return new Prompt(List.of(systemMessage, userMessage), openAiChatOptions);
+    }
+}
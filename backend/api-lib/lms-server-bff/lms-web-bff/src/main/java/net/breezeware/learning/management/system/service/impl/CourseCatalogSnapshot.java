@@ -0,0 +1,373 @@
+package net.breezeware.learning.management.system.service.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.breezeware.learning.management.system.dao.CourseChange;
+import net.breezeware.learning.management.system.dao.CourseRepository;
+import net.breezeware.learning.management.system.dao.CourseSummary;
+import net.breezeware.learning.management.system.dto.CourseCatalogPageDto;
+import net.breezeware.learning.management.system.dto.CourseDto;
+import net.breezeware.learning.management.system.mapper.CourseMapper;
+import net.breezeware.learning.management.system.util.TransactionCallbacks;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Immutable, pre-serialized copy of the course catalog. Every course is mapped
+ * and written to JSON once, so catalog pages are assembled from ready-made
+ * bytes without touching the database.
+ * <p>
+ * Writes to a course schedule {@link #refreshCourse} after their transaction
+ * commits, which replaces that single entry. Changes made by other application
+ * instances are picked up every {@code lms.courses.snapshot.check-interval-ms}
+ * from a high-water mark: courses modified and enrollments created since the
+ * last check are read from their time indexes, and only the entries whose
+ * version or enrollment count differs from the snapshot are reloaded. The
+ * check looks back {@code lms.courses.snapshot.change-overlap-ms} before the
+ * mark, so that transactions committing after the check that should have seen
+ * them are not missed; entries already refreshed on this instance match and
+ * are skipped. The whole snapshot is also rebuilt periodically as a safety
+ * net.
+ * <p>
+ * The entity tag is a hash of the serialized courses, so every instance
+ * serving the same catalog returns the same tag. Mutations are serialized by a
+ * lock rather than a monitor, so that a virtual thread waiting on the database
+ * does not pin its carrier thread; readers always see a complete snapshot.
+ */
+@Component
+@Slf4j
+public class CourseCatalogSnapshot {
+
+    private static final byte[] EMPTY_ARRAY = "[]".getBytes(StandardCharsets.UTF_8);
+
+    private final CourseRepository courseRepository;
+    private final CourseMapper courseMapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readTransactionTemplate;
+
+    @Value("${document.cdn-url}")
+    String documentCdnUrl;
+
+    @Value("${lms.courses.snapshot.change-overlap-ms:60000}")
+    long changeOverlapMillis;
+
+    private final ReentrantLock mutationLock = new ReentrantLock();
+    private volatile State state;
+
+    public CourseCatalogSnapshot(CourseRepository courseRepository, CourseMapper courseMapper,
+            ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.courseRepository = courseRepository;
+        this.courseMapper = courseMapper;
+        this.objectMapper = objectMapper;
+        this.readTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Rebuilds the whole snapshot from the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${lms.courses.snapshot.rebuild-interval-ms:300000}",
+            fixedDelayString = "${lms.courses.snapshot.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        log.info("Entering rebuild()");
+        mutationLock.lock();
+        try {
+            // Taken before reading, so that changes committed meanwhile are checked again
+            Instant checkedUpTo = Instant.now();
+            List<CourseSummary> courseSummaries =
+                    readTransactionTemplate.execute(status -> courseRepository.findCatalog());
+            List<Entry> rebuilt = new ArrayList<>(courseSummaries.size());
+            courseSummaries.forEach(courseSummary -> rebuilt.add(toEntry(courseSummary)));
+            publish(rebuilt, checkedUpTo);
+            log.info("Leaving rebuild() with {} courses", rebuilt.size());
+        } finally {
+            mutationLock.unlock();
+        }
+
+    }
+
+    /**
+     * Reloads the entries of the courses that were modified or given new
+     * enrollments since the last check, including by other application
+     * instances. Courses whose version and enrollment count already match the
+     * snapshot are left alone, so when nothing changed this reads one empty
+     * index range.
+     */
+    @Scheduled(initialDelayString = "${lms.courses.snapshot.check-interval-ms:5000}",
+            fixedDelayString = "${lms.courses.snapshot.check-interval-ms:5000}")
+    public void refreshChanged() {
+        if (state == null) {
+            // Built on first use
+            return;
+        }
+
+        mutationLock.lock();
+        try {
+            State current = state;
+            Instant checkedUpTo = Instant.now();
+            Instant since = current.checkedUpTo().minusMillis(changeOverlapMillis);
+            List<CourseChange> changes =
+                    readTransactionTemplate.execute(status -> courseRepository.findCatalogChangesSince(since));
+            Set<Long> staleCourseIds = new TreeSet<>();
+            changes.stream().filter(change -> isStale(current.entries(), change))
+                    .forEach(change -> staleCourseIds.add(change.getId()));
+            if (staleCourseIds.isEmpty()) {
+                state = new State(current.entries(), current.etag(), checkedUpTo);
+                return;
+            }
+
+            List<CourseSummary> courseSummaries = readTransactionTemplate
+                    .execute(status -> courseRepository.findCatalogEntries(staleCourseIds));
+            publish(replace(current.entries(), staleCourseIds, courseSummaries), checkedUpTo);
+            log.info("Refreshed {} changed courses in the catalog snapshot", staleCourseIds.size());
+        } catch (Exception e) {
+            // The mark is left in place, so the next check retries
+            log.error("Failed to refresh changed courses in the catalog snapshot: {}", e.getMessage(), e);
+        } finally {
+            mutationLock.unlock();
+        }
+
+    }
+
+    /**
+     * Replaces the entry of one course once the current transaction commits, or
+     * immediately when no transaction is active. Deleted courses are removed.
+     * @param courseId the ID of the changed course
+     */
+    public void refreshCourseAfterCommit(long courseId) {
+        TransactionCallbacks.afterCommit(() -> refreshCourse(courseId));
+    }
+
+    /**
+     * Replaces the entry of one course with its current state in the database.
+     * Deleted courses are removed. The entry carries the version and enrollment
+     * count it was read at, so the next check for changes skips it.
+     * @param courseId the ID of the changed course
+     */
+    public void refreshCourse(long courseId) {
+        mutationLock.lock();
+        try {
+            if (state == null) {
+                rebuild();
+                return;
+            }
+
+            List<CourseSummary> courseSummaries =
+                    readTransactionTemplate.execute(status -> courseRepository.findCatalogEntries(Set.of(courseId)));
+            publish(replace(state.entries(), Set.of(courseId), courseSummaries), state.checkedUpTo());
+            log.debug("Refreshed catalog snapshot entry for course {}", courseId);
+        } catch (Exception e) {
+            // The next check for changes repairs the snapshot
+            log.error("Failed to refresh catalog snapshot for course {}: {}", courseId, e.getMessage(), e);
+        } finally {
+            mutationLock.unlock();
+        }
+
+    }
+
+    /**
+     * Writes one keyset page of the catalog as a JSON array.
+     * @param  after      the ID of the last course of the previous page, or
+     *                    {@code null} for the first page
+     * @param  limit      the maximum number of courses to return
+     * @param  status     the status to match, or {@code null}
+     * @param  authorId   the author to match, or {@code null}
+     * @param  namePrefix the lower-case name prefix to match, or {@code null}
+     * @return            the page, tagged with the snapshot version it was read
+     *                    from
+     */
+    public CourseCatalogPageDto page(Long after, int limit, String status, UUID authorId, String namePrefix) {
+        State current = state;
+        if (current == null) {
+            rebuild();
+            current = state;
+        }
+
+        List<Entry> snapshot = current.entries();
+
+        int start = 0;
+        if (after != null) {
+            int position = indexOf(snapshot, after);
+            start = position >= 0 ? position + 1 : -position - 1;
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write('[');
+        int count = 0;
+        Long lastId = null;
+        boolean hasMore = false;
+        for (int i = start; i < snapshot.size(); i++) {
+            Entry entry = snapshot.get(i);
+            if (!entry.matches(status, authorId, namePrefix)) {
+                continue;
+            }
+
+            if (count == limit) {
+                hasMore = true;
+                break;
+            }
+
+            if (count > 0) {
+                body.write(',');
+            }
+
+            body.writeBytes(entry.json());
+            lastId = entry.id();
+            count++;
+        }
+
+        if (count == 0) {
+            return CourseCatalogPageDto.builder().content(EMPTY_ARRAY).etag(current.etag()).build();
+        }
+
+        body.write(']');
+        return CourseCatalogPageDto.builder().content(body.toByteArray()).nextCursor(hasMore ? lastId : null)
+                .etag(current.etag()).build();
+    }
+
+    /**
+     * Publishes a new version of the snapshot. Must be called while holding the
+     * mutation lock.
+     * @param updated     the entries of the new version, ordered by ID
+     * @param checkedUpTo the time up to which changes in the database are
+     *                    reflected in the entries
+     */
+    private void publish(List<Entry> updated, Instant checkedUpTo) {
+        state = new State(Collections.unmodifiableList(updated), etag(updated), checkedUpTo);
+    }
+
+    /**
+     * Replaces the entries of the given courses with freshly read ones.
+     * @param  entries         the current entries, ordered by ID
+     * @param  courseIds       the IDs of the courses to replace
+     * @param  courseSummaries the current state of those courses that are not
+     *                         deleted
+     * @return                 the updated entries, ordered by ID
+     */
+    private List<Entry> replace(List<Entry> entries, Set<Long> courseIds, List<CourseSummary> courseSummaries) {
+        List<Entry> updated = new ArrayList<>(entries);
+        updated.removeIf(entry -> courseIds.contains(entry.id()));
+        courseSummaries.forEach(courseSummary -> {
+            Entry entry = toEntry(courseSummary);
+            updated.add(-indexOf(updated, entry.id()) - 1, entry);
+        });
+        return updated;
+    }
+
+    /**
+     * Tells whether the snapshot is out of date for a changed course.
+     * @param  entries the current entries, ordered by ID
+     * @param  change  the current state of the course
+     * @return         {@code true} if the entry must be reloaded or removed
+     */
+    private static boolean isStale(List<Entry> entries, CourseChange change) {
+        int position = indexOf(entries, change.getId());
+        if ("deleted".equalsIgnoreCase(change.getStatus())) {
+            return position >= 0;
+        }
+
+        if (position < 0) {
+            return true;
+        }
+
+        Entry entry = entries.get(position);
+        return entry.version() != change.getVersion() || entry.learnersEnrolled() != change.getLearnersEnrolled();
+    }
+
+    /**
+     * Derives the entity tag from the serialized courses, so that it only
+     * changes when the catalog does and is the same on every instance.
+     * @param  entries the entries, ordered by ID
+     * @return         the entity tag, without quotes
+     */
+    private static String etag(List<Entry> entries) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            entries.forEach(entry -> {
+                digest.update(entry.json());
+                digest.update((byte) ',');
+            });
+            return "catalog-" + HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+    }
+
+    private Entry toEntry(CourseSummary courseSummary) {
+        CourseDto dto = courseMapper.courseToCourseDto(courseSummary.getCourse(), documentCdnUrl);
+        dto.setLearnersEnrolled(courseSummary.getLearnersEnrolled());
+        try {
+            return new Entry(dto.getId(), courseSummary.getCourse().getVersion(), courseSummary.getLearnersEnrolled(),
+                    dto.getStatus(), dto.getAuthorId(), dto.getName() == null ? "" : dto.getName().toLowerCase(),
+                    objectMapper.writeValueAsBytes(dto));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize course " + dto.getId(), e);
+        }
+
+    }
+
+    /**
+     * Binary search for a course ID in entries ordered by ID.
+     * @param  list     the entries
+     * @param  courseId the course ID
+     * @return          the position, or {@code -(insertion point) - 1} if absent
+     */
+    private static int indexOf(List<Entry> list, long courseId) {
+        int low = 0;
+        int high = list.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long id = list.get(mid).id();
+            if (id < courseId) {
+                low = mid + 1;
+            } else if (id > courseId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+
+        }
+
+        return -(low + 1);
+    }
+
+    private record State(List<Entry> entries, String etag, Instant checkedUpTo) {
+    }
+
+    private record Entry(long id, long version, long learnersEnrolled, String status, UUID authorId,
+            String lowerCaseName, byte[] json) {
+
+        boolean matches(String statusFilter, UUID authorFilter, String namePrefixFilter) {
+            return (statusFilter == null || statusFilter.equals(status))
+                    && (authorFilter == null || authorFilter.equals(authorId))
+                    && (namePrefixFilter == null || lowerCaseName.startsWith(namePrefixFilter));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package net.breezeware.learning.management.system.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import net.breezeware.learning.management.system.dto.EmbeddingDto;
+import net.breezeware.learning.management.system.entity.Course;
+import net.breezeware.learning.management.system.entity.Topic;
+
+/**
+ * Splits a course and its topics into separately embedded chunks. The course
+ * details form the {@code course:<n>} chunks and every topic forms its own
+ * {@code topic:<id>:<n>} chunks, so editing one topic only changes that topic's
+ * chunks. Long text is split on whitespace into chunks of at most
+ * {@code lms.embedding.chunk.max-tokens} tokens, estimated at four characters
+ * per token.
+ */
+@Component
+public class CourseDocumentChunker {
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    @Value("${lms.embedding.chunk.max-tokens:512}")
+    int maxTokens;
+
+    /**
+     * Builds the embedding chunks for a course and its topics.
+     * @param  course the course
+     * @param  topics the topics of the course
+     * @return        the chunks, all referencing the course's unique ID
+     */
+    public List<EmbeddingDto> chunk(Course course, List<Topic> topics) {
+        List<EmbeddingDto> chunks = new ArrayList<>();
+        String courseText = course.getDescription() == null ? course.getName()
+                : course.getName() + " " + course.getDescription();
+        addChunks(chunks, course, "course", "", courseText);
+
+        topics.forEach(topic -> addChunks(chunks, course, "topic:" + topic.getId(),
+                course.getName() + " - " + topic.getName() + ": ", topic.getDescription()));
+        return chunks;
+    }
+
+    private void addChunks(List<EmbeddingDto> chunks, Course course, String keyPrefix, String contextPrefix,
+            String text) {
+        List<String> pieces = split(text == null ? "" : text, maxTokens * CHARS_PER_TOKEN - contextPrefix.length());
+        for (int i = 0; i < pieces.size(); i++) {
+            chunks.add(EmbeddingDto.builder().content(contextPrefix + pieces.get(i))
+                    .referenceId(course.getUniqueId()).chunkKey(keyPrefix + ":" + i).build());
+        }
+
+    }
+
+    /**
+     * Splits text into pieces of at most {@code maxChars} characters, breaking on
+     * whitespace where possible.
+     * @param  text     the text to split
+     * @param  maxChars the maximum piece length
+     * @return          the pieces, at least one
+     */
+    private List<String> split(String text, int maxChars) {
+        int limit = Math.max(maxChars, CHARS_PER_TOKEN * 16);
+        String remaining = text.strip();
+        List<String> pieces = new ArrayList<>();
+        while (remaining.length() > limit) {
+            int breakAt = remaining.lastIndexOf(' ', limit);
+            if (breakAt <= 0) {
+                breakAt = limit;
+            }
+
+            pieces.add(remaining.substring(0, breakAt).strip());
+            remaining = remaining.substring(breakAt).strip();
+        }
+
+        pieces.add(remaining);
+        return pieces;
+    }
+}
@@ -0,0 +1,235 @@
+package net.breezeware.learning.management.system.service.impl;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Optional;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import net.breezeware.learning.management.system.service.api.ObjectStorageService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Generates the resized, recompressed variants of a course photo. Each variant
+ * is a baseline JPEG no wider than its configured width; images are never
+ * upscaled and transparent areas are flattened onto white.
+ * <p>
+ * Large originals are subsampled while decoding, so the decoded image is at
+ * most about twice the width of the largest variant. Formats ImageIO cannot
+ * rasterize, such as SVG, get no variants and are served as uploaded.
+ */
+@Component
+@Slf4j
+public class CourseImageProcessor {
+
+    private final ObjectStorageService objectStorageService;
+
+    @Value("${lms.images.thumbnail-width:160}")
+    int thumbnailWidth;
+
+    @Value("${lms.images.card-width:480}")
+    int cardWidth;
+
+    @Value("${lms.images.hero-width:1280}")
+    int heroWidth;
+
+    @Value("${lms.images.jpeg-quality:0.8}")
+    float jpegQuality;
+
+    @Value("${lms.images.max-decoded-pixels:16000000}")
+    long maxDecodedPixels;
+
+    public CourseImageProcessor(ObjectStorageService objectStorageService) {
+        this.objectStorageService = objectStorageService;
+    }
+
+    /**
+     * Keys of the generated variants of a course photo.
+     * @param thumbnailKey the key of the thumbnail variant
+     * @param cardKey      the key of the catalog card variant
+     * @param heroKey      the key of the detail page variant
+     */
+    public record ImageVariants(String thumbnailKey, String cardKey, String heroKey) {
+    }
+
+    /**
+     * Generates and uploads the variants of a course photo next to the original.
+     * Failures are logged and reported as an empty result, so the course keeps
+     * using the original image.
+     * @param  photoKey the key of the original image
+     * @param  file     the uploaded image
+     * @return          the keys of the variants, or empty if none could be
+     *                  generated
+     */
+    public Optional<ImageVariants> createVariants(String photoKey, MultipartFile file) {
+        log.info("Entering createVariants(photoKey={})", photoKey);
+        try {
+            BufferedImage source = decode(file);
+            if (source == null) {
+                log.info("Leaving createVariants() without variants for unsupported image {}", photoKey);
+                return Optional.empty();
+            }
+
+            ImageVariants keys = variantKeys(photoKey);
+            // Largest first, so each variant is scaled down from the previous one
+            BufferedImage hero = scaleToWidth(flatten(source), heroWidth);
+            store(keys.heroKey(), hero);
+            BufferedImage card = scaleToWidth(hero, cardWidth);
+            store(keys.cardKey(), card);
+            store(keys.thumbnailKey(), scaleToWidth(card, thumbnailWidth));
+
+            log.info("Leaving createVariants()");
+            return Optional.of(keys);
+        } catch (Exception e) {
+            log.warn("Failed to create image variants for {}: {}", photoKey, e.getMessage(), e);
+            return Optional.empty();
+        }
+
+    }
+
+    /**
+     * Returns the keys under which the variants of a photo are stored, whether or
+     * not they have been generated.
+     * @param  photoKey the key of the original image
+     * @return          the variant keys
+     */
+    public ImageVariants variantKeys(String photoKey) {
+        String baseKey = photoKey.contains(".") ? photoKey.substring(0, photoKey.lastIndexOf('.')) : photoKey;
+        return new ImageVariants(baseKey + "-thumbnail.jpg", baseKey + "-card.jpg", baseKey + "-hero.jpg");
+    }
+
+    /**
+     * Decodes the first frame of an image, subsampled so that it is not much
+     * larger than the largest variant.
+     * @param  file the uploaded image
+     * @return      the decoded image, or {@code null} if no ImageIO reader
+     *              supports the format
+     * @throws IOException if the image cannot be read or is too large to decode
+     */
+    private BufferedImage decode(MultipartFile file) throws IOException {
+        try (InputStream content = file.getInputStream();
+                ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int subsampling = Math.max(1, width / (2 * heroWidth));
+                long decodedPixels = ((long) width / subsampling) * ((long) height / subsampling);
+                if (decodedPixels > maxDecodedPixels) {
+                    throw new IOException("Image of %dx%d is too large to decode".formatted(width, height));
+                }
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+
+        }
+
+    }
+
+    /**
+     * Draws an image onto an opaque RGB canvas with a white background, as JPEG
+     * has no alpha channel.
+     * @param  image the image
+     * @return       the opaque copy
+     */
+    private static BufferedImage flatten(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        return rgb;
+    }
+
+    /**
+     * Scales an image down to the given width, keeping its aspect ratio. The width
+     * is halved in steps with bilinear filtering, which avoids the aliasing of a
+     * single large reduction.
+     * @param  image       the image
+     * @param  targetWidth the maximum width
+     * @return             the scaled image, or the image itself if it is not wider
+     *                     than {@code targetWidth}
+     */
+    private static BufferedImage scaleToWidth(BufferedImage image, int targetWidth) {
+        BufferedImage scaled = image;
+        while (scaled.getWidth() > targetWidth) {
+            int width = Math.max(targetWidth, scaled.getWidth() / 2);
+            int height = Math.max(1, (int) Math.round((double) image.getHeight() * width / image.getWidth()));
+            BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                        RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(scaled, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+
+            scaled = step;
+        }
+
+        return scaled;
+    }
+
+    /**
+     * Encodes an image as JPEG and uploads it.
+     * @param  key   the object key
+     * @param  image the opaque image
+     * @throws IOException if the image cannot be encoded
+     */
+    private void store(String key, BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(encoded)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+
+        byte[] bytes = encoded.toByteArray();
+        objectStorageService.upload(key, new ByteArrayInputStream(bytes), bytes.length, "image/jpeg");
+    }
+}
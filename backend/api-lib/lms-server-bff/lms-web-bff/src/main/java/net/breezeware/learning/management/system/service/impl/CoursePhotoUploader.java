@@ -0,0 +1,180 @@
+package net.breezeware.learning.management.system.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import net.breezeware.dynamo.utils.exception.DynamoException;
+import net.breezeware.learning.management.system.service.api.ObjectStorageService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Uploads a course photo and its variants on the {@code courseUploadExecutor}
+ * pool while the request thread looks up what the course write needs, so that
+ * the latency of a course write is bounded by the slower of the two instead of
+ * their sum.
+ * <p>
+ * The upload is awaited before the course is written, outside of any
+ * transaction, so that no database connection is held while objects are
+ * uploaded or resized. If the upload fails or the course cannot be written,
+ * the caller discards it: the upload stops before its next step and every
+ * object it wrote is deleted once it has settled.
+ */
+@Component
+@Slf4j
+public class CoursePhotoUploader {
+
+    private final ObjectStorageService objectStorageService;
+    private final CourseImageProcessor courseImageProcessor;
+    private final AsyncTaskExecutor courseUploadExecutor;
+
+    @Value("${lms.storage.upload.timeout-ms:60000}")
+    long uploadTimeoutMillis;
+
+    public CoursePhotoUploader(ObjectStorageService objectStorageService, CourseImageProcessor courseImageProcessor,
+            @Qualifier("courseUploadExecutor") AsyncTaskExecutor courseUploadExecutor) {
+        this.objectStorageService = objectStorageService;
+        this.courseImageProcessor = courseImageProcessor;
+        this.courseUploadExecutor = courseUploadExecutor;
+    }
+
+    /**
+     * Starts uploading a course photo under a new key.
+     * @param  file the uploaded image
+     * @return      the running upload
+     */
+    public PendingUpload start(MultipartFile file) {
+        String[] parts = file.getContentType().split("/");
+        String photoKey = "Course/%s.%s".formatted(UUID.randomUUID(), parts[1]);
+        log.info("Entering start(photoKey={})", photoKey);
+
+        AtomicBoolean abandoned = new AtomicBoolean();
+        CompletableFuture<Optional<CourseImageProcessor.ImageVariants>> upload =
+                CompletableFuture.supplyAsync(() -> upload(photoKey, file, abandoned), courseUploadExecutor);
+        PendingUpload pendingUpload = new PendingUpload(photoKey, upload, abandoned);
+        log.info("Leaving start()");
+        return pendingUpload;
+    }
+
+    private Optional<CourseImageProcessor.ImageVariants> upload(String photoKey, MultipartFile file,
+            AtomicBoolean abandoned) {
+        if (abandoned.get()) {
+            return Optional.empty();
+        }
+
+        try (InputStream content = file.getInputStream()) {
+            objectStorageService.upload(photoKey, content, file.getSize(), file.getContentType());
+        } catch (IOException e) {
+            throw new DynamoException("Error while uploading document '%s'".formatted(file.getOriginalFilename()),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+
+        if (abandoned.get()) {
+            return Optional.empty();
+        }
+
+        return courseImageProcessor.createVariants(photoKey, file);
+    }
+
+    /**
+     * Deletes a photo and all of its possible variants. Runs once a discarded
+     * upload has settled, so failures are only logged.
+     * @param photoKey the key of the original image
+     */
+    private void deleteObjects(String photoKey) {
+        CourseImageProcessor.ImageVariants variants = courseImageProcessor.variantKeys(photoKey);
+        for (String key : List.of(photoKey, variants.thumbnailKey(), variants.cardKey(), variants.heroKey())) {
+            try {
+                objectStorageService.delete(key);
+            } catch (Exception e) {
+                log.warn("Failed to delete orphaned object '{}' of a discarded upload: {}", key, e.getMessage());
+            }
+
+        }
+
+        log.info("Deleted objects of discarded photo '{}'", photoKey);
+    }
+
+    /**
+     * A photo upload running alongside the lookups of a request.
+     */
+    public final class PendingUpload {
+
+        private final String photoKey;
+        private final CompletableFuture<Optional<CourseImageProcessor.ImageVariants>> upload;
+        private final AtomicBoolean abandoned;
+
+        private PendingUpload(String photoKey, CompletableFuture<Optional<CourseImageProcessor.ImageVariants>> upload,
+                AtomicBoolean abandoned) {
+            this.photoKey = photoKey;
+            this.upload = upload;
+            this.abandoned = abandoned;
+        }
+
+        /**
+         * Returns the key the original photo is stored under.
+         * @return the photo key
+         */
+        public String photoKey() {
+            return photoKey;
+        }
+
+        /**
+         * Waits for the upload to finish. Must be called before the course is
+         * written, and outside of its transaction, so that a course never
+         * references an object that failed to upload. A failed upload is
+         * discarded.
+         * @return the generated variants, if any
+         */
+        public Optional<CourseImageProcessor.ImageVariants> await() {
+            try {
+                return upload.get(uploadTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                discard();
+                if (e.getCause() instanceof DynamoException dynamoException) {
+                    throw dynamoException;
+                }
+
+                throw new DynamoException("Error while uploading '%s': %s".formatted(photoKey,
+                        e.getCause().getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
+            } catch (TimeoutException e) {
+                discard();
+                throw new DynamoException("Timed out uploading '%s'".formatted(photoKey),
+                        HttpStatus.SERVICE_UNAVAILABLE);
+            } catch (InterruptedException e) {
+                discard();
+                Thread.currentThread().interrupt();
+                throw new DynamoException("Interrupted while uploading '%s'".formatted(photoKey),
+                        HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+
+        }
+
+        /**
+         * Stops the upload before its next step and deletes every object it wrote
+         * once it has settled. Called when the course referencing the photo is not
+         * written; later calls have no effect.
+         */
+        public void discard() {
+            if (abandoned.compareAndSet(false, true)) {
+                upload.whenComplete((variants, error) -> deleteObjects(photoKey));
+            }
+
+        }
+    }
+}
@@ -1,33 +1,43 @@
 package net.breezeware.learning.management.system.service.impl;
 
-import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import net.breezeware.dynamo.aws.s3.exception.DynamoS3Exception;
-import net.breezeware.dynamo.aws.s3.service.api.S3Service;
 import net.breezeware.dynamo.generics.crud.service.GenericService;
 import net.breezeware.dynamo.usermanagement.entity.User;
 import net.breezeware.dynamo.usermanagement.service.UserService;
 import net.breezeware.dynamo.utils.exception.DynamoException;
 import net.breezeware.learning.management.system.dao.CourseRepository;
+import net.breezeware.learning.management.system.dao.EntityVersion;
+import net.breezeware.learning.management.system.dao.LearnerCourseSummary;
 import net.breezeware.learning.management.system.dao.UserCourseMapRepository;
-import net.breezeware.learning.management.system.dao.VectorStoreRepository;
+import net.breezeware.learning.management.system.dto.CourseCatalogPageDto;
 import net.breezeware.learning.management.system.dto.CourseDto;
-import net.breezeware.learning.management.system.dto.EmbeddingDto;
+import net.breezeware.learning.management.system.dto.CoursePageDto;
+import net.breezeware.learning.management.system.dto.CourseQueryDto;
+import net.breezeware.learning.management.system.dto.EnrollmentResultDto;
+import net.breezeware.learning.management.system.dto.ResourceVersionDto;
 import net.breezeware.learning.management.system.entity.Course;
-import net.breezeware.learning.management.system.entity.UserCourseMap;
 import net.breezeware.learning.management.system.mapper.CourseMapper;
 import net.breezeware.learning.management.system.service.api.CourseService;
+import net.breezeware.learning.management.system.service.api.EmbeddingJobService;
 import net.breezeware.learning.management.system.service.api.EmbeddingService;
 
 import lombok.extern.slf4j.Slf4j;
@@ -44,72 +54,94 @@ import jakarta.transaction.Transactional;
 public class CourseServiceImpl extends GenericService<Course> implements CourseService {
 
     private final CourseRepository courseRepository;
-    private final VectorStoreRepository vectorStoreRepository;
     private final EmbeddingService embeddingService;
     private final UserService userService;
     private final CourseMapper courseMapper;
-    private final S3Service s3Service;
     private final UserCourseMapRepository userCourseMapRepository;
-
-    @Value("${aws.s3.bucket}")
-    String bucketName;
+    private final EmbeddingJobService embeddingJobService;
+    private final CourseCatalogSnapshot courseCatalogSnapshot;
+    private final CoursePhotoUploader coursePhotoUploader;
+    private final TransactionTemplate writeTransactionTemplate;
 
     @Value("${document.cdn-url}")
     String documentCdnUrl;
 
-    public CourseServiceImpl(CourseRepository courseRepository, VectorStoreRepository vectorStoreRepository,
-            EmbeddingService embeddingService, UserService userService, CourseMapper courseMapper, S3Service s3Service,
-            UserCourseMapRepository userCourseMapRepository) {
+    @Value("${lms.courses.page.default-limit:50}")
+    int defaultPageLimit;
+
+    @Value("${lms.courses.page.max-limit:200}")
+    int maxPageLimit;
+
+    @Value("${lms.enrollments.max-batch-size:5000}")
+    int maxEnrollmentBatchSize;
+
+    public CourseServiceImpl(CourseRepository courseRepository, EmbeddingService embeddingService,
+            UserService userService, CourseMapper courseMapper,
+            UserCourseMapRepository userCourseMapRepository, EmbeddingJobService embeddingJobService,
+            CourseCatalogSnapshot courseCatalogSnapshot, CoursePhotoUploader coursePhotoUploader,
+            PlatformTransactionManager transactionManager) {
         super(courseRepository);
         this.courseRepository = courseRepository;
-        this.vectorStoreRepository = vectorStoreRepository;
         this.embeddingService = embeddingService;
         this.userService = userService;
         this.courseMapper = courseMapper;
-        this.s3Service = s3Service;
         this.userCourseMapRepository = userCourseMapRepository;
+        this.embeddingJobService = embeddingJobService;
+        this.courseCatalogSnapshot = courseCatalogSnapshot;
+        this.coursePhotoUploader = coursePhotoUploader;
+        this.writeTransactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
      * Creates a new course, validates file format, uploads image to S3, persists
-     * course details, and generates embeddings.
+     * course details, and queues the generation of its embeddings. The image and
+     * its variants are uploaded concurrently with the author lookup and awaited
+     * before the course is inserted in a short transaction, so no database
+     * connection is held meanwhile. The uploaded objects are deleted again if
+     * the course cannot be written.
      * @param  file      the course cover image
      * @param  courseDto the data transfer object containing course details
      * @return           the saved {@link Course} entity
      */
-    @Transactional
     @Override
     public Course createCourse(MultipartFile file, CourseDto courseDto) {
         log.info("Entering createCourse()");
+        CoursePhotoUploader.PendingUpload photoUpload = null;
         try {
             if (isValidImage(file)) {
                 throw new DynamoException("Uploaded file has an invalid format", HttpStatus.BAD_REQUEST);
             }
 
+            // The upload runs alongside the author lookup
+            photoUpload = coursePhotoUploader.start(file);
+
             User author = userService.retrieveUser(courseDto.getAuthorId())
                     .orElseThrow(() -> new DynamoException("User not found with ID: " + courseDto.getAuthorId(),
                             HttpStatus.NOT_FOUND));
 
             courseDto.setUniqueId(UUID.randomUUID());
 
-            String[] parts = file.getContentType().split("/");
-            String photoKey = "Course/%s.%s".formatted(UUID.randomUUID(), parts[1]);
-            uploadObjectInS3(photoKey, file);
-
             Course course = courseMapper.courseDtoToCourse(courseDto);
             course.setAuthor(author);
-            course.setPhotoKey(photoKey);
+            course.setPhotoKey(photoUpload.photoKey());
             course.setStatus("published");
-
-            Course savedCourse = create(course);
-
-            EmbeddingDto embeddingDto = new EmbeddingDto(savedCourse.getName() + " " + savedCourse.getDescription(),
-                    savedCourse.getUniqueId());
-            embeddingService.documentEmbedding(embeddingDto);
+            // The course must not commit before its photo exists
+            applyImageVariants(course, photoUpload.await());
+
+            Course savedCourse = writeTransactionTemplate.execute(status -> {
+                Course createdCourse = create(course);
+                embeddingJobService.enqueueCourseRefresh(createdCourse.getId());
+                courseCatalogSnapshot.refreshCourseAfterCommit(createdCourse.getId());
+                return createdCourse;
+            });
 
             log.info("Leaving createCourse()");
             return savedCourse;
+        } catch (DynamoException e) {
+            discard(photoUpload);
+            throw e;
         } catch (Exception e) {
+            discard(photoUpload);
             log.error("Error while creating course: {}", e.getMessage(), e);
             throw new DynamoException("Failed to create course: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -117,53 +149,70 @@ public class CourseServiceImpl extends GenericService<Course> implements CourseS
     }
 
     /**
-     * Updates an existing course, regenerates embeddings, and uploads new file if
-     * provided.
+     * Updates an existing course, queues the refresh of its embeddings, and uploads
+     * new file if provided. A new image is uploaded concurrently with the author
+     * lookup and awaited before the course is updated in a short transaction.
      * @param  courseId  the ID of the course to update
      * @param  file      optional new cover image
      * @param  courseDto the updated course details
      * @return           the updated {@link Course} entity
      */
-    @Transactional
     @Override
     public Course updateCourse(long courseId, MultipartFile file, CourseDto courseDto) {
         log.info("Entering updateCourse(courseId={})", courseId);
+        CoursePhotoUploader.PendingUpload photoUpload = null;
         try {
-            Course existingCourse = retrieveById(courseId).orElseThrow(
-                    () -> new DynamoException("Course not found with ID: " + courseId, HttpStatus.NOT_FOUND));
-
-            vectorStoreRepository.deleteByReference(existingCourse.getUniqueId());
-
-            existingCourse.setName(courseDto.getName());
-            existingCourse.setDescription(courseDto.getDescription());
-
-            if (courseDto.getAuthorId() != null) {
-                User author = userService.retrieveUser(courseDto.getAuthorId())
-                        .orElseThrow(() -> new DynamoException("User not found with ID: " + courseDto.getAuthorId(),
-                                HttpStatus.NOT_FOUND));
-                existingCourse.setAuthor(author);
-            }
-
             if (file != null && !file.isEmpty()) {
                 if (isValidImage(file)) {
                     throw new DynamoException("Uploaded file has an invalid format", HttpStatus.BAD_REQUEST);
                 }
 
-                String[] parts = file.getContentType().split("/");
-                String photoKey = "Course/%s.%s".formatted(UUID.randomUUID(), parts[1]);
-                uploadObjectInS3(photoKey, file);
-                existingCourse.setPhotoKey(photoKey);
+                // The upload runs alongside the author lookup
+                photoUpload = coursePhotoUploader.start(file);
             }
 
-            Course updatedCourse = update(existingCourse);
+            Optional<User> author = Optional.empty();
+            if (courseDto.getAuthorId() != null) {
+                author = Optional.of(userService.retrieveUser(courseDto.getAuthorId())
+                        .orElseThrow(() -> new DynamoException("User not found with ID: " + courseDto.getAuthorId(),
+                                HttpStatus.NOT_FOUND)));
+            }
 
-            EmbeddingDto embeddingDto = new EmbeddingDto(updatedCourse.getName() + " " + updatedCourse.getDescription(),
-                    updatedCourse.getUniqueId());
-            embeddingService.documentEmbedding(embeddingDto);
+            Optional<CourseImageProcessor.ImageVariants> variants =
+                    photoUpload == null ? Optional.empty() : photoUpload.await();
+            CoursePhotoUploader.PendingUpload uploadedPhoto = photoUpload;
+            Optional<User> newAuthor = author;
+
+            Course updatedCourse = writeTransactionTemplate.execute(status -> {
+                Course existingCourse = retrieveById(courseId).orElseThrow(
+                        () -> new DynamoException("Course not found with ID: " + courseId, HttpStatus.NOT_FOUND));
+
+                existingCourse.setName(courseDto.getName());
+                existingCourse.setDescription(courseDto.getDescription());
+                newAuthor.ifPresent(existingCourse::setAuthor);
+                if (uploadedPhoto != null) {
+                    existingCourse.setPhotoKey(uploadedPhoto.photoKey());
+                    applyImageVariants(existingCourse, variants);
+                }
+
+                Course course = update(existingCourse);
+                embeddingJobService.enqueueCourseRefresh(course.getId());
+                courseCatalogSnapshot.refreshCourseAfterCommit(course.getId());
+                return course;
+            });
 
             log.info("Leaving updateCourse()");
             return updatedCourse;
+        } catch (OptimisticLockingFailureException e) {
+            discard(photoUpload);
+            log.warn("Course with ID {} was updated concurrently: {}", courseId, e.getMessage());
+            throw new DynamoException("Course was modified by another request, reload it and retry",
+                    HttpStatus.CONFLICT);
+        } catch (DynamoException e) {
+            discard(photoUpload);
+            throw e;
         } catch (Exception e) {
+            discard(photoUpload);
             log.error("Error while updating course with ID {}: {}", courseId, e.getMessage(), e);
             throw new DynamoException("Failed to update course: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -186,7 +235,8 @@ public class CourseServiceImpl extends GenericService<Course> implements CourseS
             course.setStatus("deleted");
             update(course);
 
-            vectorStoreRepository.deleteByReference(course.getUniqueId());
+            embeddingService.deleteEmbeddings(course.getUniqueId());
+            courseCatalogSnapshot.refreshCourseAfterCommit(course.getId());
 
             log.info("Leaving deleteCourse()");
         } catch (Exception e) {
@@ -205,10 +255,9 @@ public class CourseServiceImpl extends GenericService<Course> implements CourseS
     public CourseDto getCourseById(long id) {
         log.info("Entering getCourseById(id={})", id);
         try {
-            Course course = courseRepository.findById(id)
+            Course course = courseRepository.findWithAuthorById(id)
                     .orElseThrow(() -> new DynamoException("Course not found with ID: " + id, HttpStatus.NOT_FOUND));
-            CourseDto courseDto = courseMapper.courseToCourseDto(course);
-            courseDto.setPhotoKey(documentCdnUrl + courseDto.getPhotoKey());
+            CourseDto courseDto = courseMapper.courseToCourseDto(course, documentCdnUrl);
 
             log.info("Leaving getCourseById()");
             return courseDto;
@@ -220,26 +269,41 @@ public class CourseServiceImpl extends GenericService<Course> implements CourseS
     }
 
     /**
-     * Retrieves all non-deleted courses.
-     * @return a list of {@link CourseDto}
+     * Retrieves the HTTP validators of a course from its version column, without
+     * loading the course.
+     * @param  id the ID of the course
+     * @return    the entity tag and last modification time of the course
      */
     @Override
-    public List<CourseDto> getAllCourses() {
+    public ResourceVersionDto getCourseVersion(long id) {
+        log.info("Entering getCourseVersion(id={})", id);
+        EntityVersion version = courseRepository.findVersionById(id)
+                .orElseThrow(() -> new DynamoException("Course not found with ID: " + id, HttpStatus.NOT_FOUND));
+        log.info("Leaving getCourseVersion()");
+        return ResourceVersionDto.builder().etag("course-%d-v%s".formatted(id, version.getTag()))
+                .lastModified(version.getModifiedOnEpochMillis() == null ? -1 : version.getModifiedOnEpochMillis())
+                .build();
+    }
+
+    /**
+     * Retrieves one keyset page of non-deleted courses from the catalog snapshot.
+     * The page is assembled from pre-serialized courses without querying the
+     * database.
+     * @param  courseQueryDto the cursor, page size and filters
+     * @return                the serialized page and the cursor of the next page
+     */
+    @Override
+    public CourseCatalogPageDto getAllCourses(CourseQueryDto courseQueryDto) {
         log.info("Entering getAllCourses()");
-        List<CourseDto> courseDtos = new ArrayList<>();
         try {
-            List<Course> courses = courseRepository.findAll();
-            courses.forEach(course -> {
-                if (!"deleted".equalsIgnoreCase(course.getStatus())) {
-                    CourseDto dto = courseMapper.courseToCourseDto(course);
-                    dto.setPhotoKey(documentCdnUrl + dto.getPhotoKey());
-                    dto.setLearnersEnrolled(userCourseMapRepository.findByCourseId(course.getId()).size());
-                    courseDtos.add(dto);
-                }
-
-            });
+            String namePrefix = blankToNull(courseQueryDto.getNamePrefix());
+            CourseCatalogPageDto coursePage = courseCatalogSnapshot.page(courseQueryDto.getAfter(),
+                    resolvePageLimit(courseQueryDto.getLimit()), blankToNull(courseQueryDto.getStatus()),
+                    courseQueryDto.getAuthorId(), namePrefix == null ? null : namePrefix.toLowerCase());
             log.info("Leaving getAllCourses()");
-            return courseDtos;
+            return coursePage;
+        } catch (DynamoException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error while retrieving courses: {}", e.getMessage(), e);
             throw new DynamoException("Failed to retrieve courses: " + e.getMessage(),
@@ -248,34 +312,38 @@ public class CourseServiceImpl extends GenericService<Course> implements CourseS
 
     }
 
+    /**
+     * Retrieves one keyset page of non-deleted courses with their enrollment
+     * counts and whether the learner is enrolled, in a single query.
+     * @param  userId         the unique ID of the learner
+     * @param  courseQueryDto the cursor, page size and filters
+     * @return                the page of courses and the cursor of the next page
+     */
     @Override
-    public List<CourseDto> getAllCoursesForLearners(UUID userId) {
+    public CoursePageDto getAllCoursesForLearners(UUID userId, CourseQueryDto courseQueryDto) {
         log.info("Entering getAllCoursesForLearners()");
 
         User user = userService.retrieveUser(userId)
                 .orElseThrow(() -> new DynamoException("User not found with ID: " + userId, HttpStatus.NOT_FOUND));
 
-        List<CourseDto> courseDtos = new ArrayList<>();
         try {
-            List<Course> courses = courseRepository.findAll();
-            courses.forEach(course -> {
-                if (!"deleted".equalsIgnoreCase(course.getStatus())) {
-                    CourseDto dto = courseMapper.courseToCourseDto(course);
-                    dto.setPhotoKey(documentCdnUrl + dto.getPhotoKey());
-                    dto.setLearnersEnrolled(userCourseMapRepository.findByCourseId(course.getId()).size());
-                    Optional<UserCourseMap> userCourseMap =
-                            userCourseMapRepository.findByCourseIdAndUserUniqueId(course.getId(), user.getUniqueId());
-
-                    if (userCourseMap.isPresent()) {
-                        dto.setEnrolled(true);
-                    }
-
-                    courseDtos.add(dto);
-                }
+            int limit = resolvePageLimit(courseQueryDto.getLimit());
+            List<LearnerCourseSummary> courseSummaries = courseRepository.findCatalogPageForLearner(
+                    user.getUniqueId(), courseQueryDto.getAfter(), blankToNull(courseQueryDto.getStatus()),
+                    courseQueryDto.getAuthorId(), namePrefixPattern(courseQueryDto.getNamePrefix()),
+                    limit + 1);
 
+            List<CourseDto> courseDtos = new ArrayList<>();
+            courseSummaries.stream().limit(limit).forEach(courseSummary -> {
+                CourseDto dto = courseMapper.courseToCourseDto(courseSummary.getCourse(), documentCdnUrl);
+                dto.setLearnersEnrolled(courseSummary.getLearnersEnrolled());
+                dto.setEnrolled(courseSummary.getLearnerEnrollments() > 0);
+                courseDtos.add(dto);
             });
             log.info("Leaving getAllCoursesForLearners()");
-            return courseDtos;
+            return toPage(courseDtos, courseSummaries.size() > limit);
+        } catch (DynamoException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error while retrieving courses: {}", e.getMessage(), e);
             throw new DynamoException("Failed to retrieve courses: " + e.getMessage(),
@@ -285,7 +353,7 @@ public class CourseServiceImpl extends GenericService<Course> implements CourseS
     }
 
     /**
-     * Enrolls a user in a course.
+     * Enrolls a user in a course. An existing enrollment is left unchanged.
      * @param courseId the ID of the course
      * @param userId   the ID of the user
      */
@@ -293,23 +361,67 @@ public class CourseServiceImpl extends GenericService<Course> implements CourseS
     @Override
     public void enrollCourse(long courseId, UUID userId) {
         log.info("Entering enrollCourse(courseId={}, userId={})", courseId, userId);
+        EnrollmentResultDto result = enrollLearners(courseId, List.of(userId)).get(0);
+        if (result.getOutcome() == EnrollmentResultDto.Outcome.USER_NOT_FOUND) {
+            throw new DynamoException("User not found with ID: " + userId, HttpStatus.NOT_FOUND);
+        }
+
+        log.info("Leaving enrollCourse()");
+    }
+
+    /**
+     * Enrolls a cohort of users in a course. The users are resolved with one
+     * query and enrolled with batched {@code INSERT ... ON CONFLICT DO NOTHING}
+     * statements, so existing enrollments are reported instead of duplicated.
+     * @param  courseId the ID of the course
+     * @param  userIds  the IDs of the users
+     * @return          the outcome for each distinct user ID, in request order
+     */
+    @Transactional
+    @Override
+    public List<EnrollmentResultDto> enrollLearners(long courseId, List<UUID> userIds) {
+        log.info("Entering enrollLearners(courseId={}, users={})", courseId, userIds == null ? 0 : userIds.size());
+        if (userIds == null || userIds.isEmpty() || userIds.contains(null)) {
+            throw new DynamoException("User IDs must be a non-empty list without nulls", HttpStatus.BAD_REQUEST);
+        }
+
+        List<UUID> distinctUserIds = List.copyOf(new LinkedHashSet<>(userIds));
+        if (distinctUserIds.size() > maxEnrollmentBatchSize) {
+            throw new DynamoException("At most %d users can be enrolled per request".formatted(maxEnrollmentBatchSize),
+                    HttpStatus.BAD_REQUEST);
+        }
+
         Course course = courseRepository.findById(courseId)
+                .filter(existing -> !"deleted".equalsIgnoreCase(existing.getStatus()))
                 .orElseThrow(() -> new DynamoException("Course not found with ID: " + courseId, HttpStatus.NOT_FOUND));
 
-        User user = userService.retrieveUser(userId)
-                .orElseThrow(() -> new DynamoException("User not found with ID: " + userId, HttpStatus.NOT_FOUND));
+        Set<UUID> existingUserIds = new HashSet<>(userCourseMapRepository.findExistingUserIds(distinctUserIds));
+        List<UUID> enrollableUserIds = distinctUserIds.stream().filter(existingUserIds::contains).toList();
+        boolean[] inserted =
+                userCourseMapRepository.batchInsertIgnoringExisting(course.getId(), enrollableUserIds, "enrolled");
 
-        UserCourseMap userCourseMap = new UserCourseMap();
-        userCourseMap.setCourse(course);
-        userCourseMap.setUser(user);
-        userCourseMap.setStatus("enrolled");
+        Map<UUID, EnrollmentResultDto.Outcome> outcomes = new HashMap<>();
+        for (int i = 0; i < enrollableUserIds.size(); i++) {
+            outcomes.put(enrollableUserIds.get(i), inserted[i] ? EnrollmentResultDto.Outcome.ENROLLED
+                    : EnrollmentResultDto.Outcome.ALREADY_ENROLLED);
+        }
 
-        userCourseMapRepository.save(userCourseMap);
-        log.info("Leaving enrollCourse()");
+        List<EnrollmentResultDto> results = distinctUserIds.stream()
+                .map(userId -> EnrollmentResultDto.builder().userId(userId)
+                        .outcome(outcomes.getOrDefault(userId, EnrollmentResultDto.Outcome.USER_NOT_FOUND)).build())
+                .toList();
+
+        if (outcomes.containsValue(EnrollmentResultDto.Outcome.ENROLLED)) {
+            courseCatalogSnapshot.refreshCourseAfterCommit(course.getId());
+        }
+
+        log.info("Leaving enrollLearners()");
+        return results;
     }
 
     /**
-     * Retrieves all courses a learner is enrolled in.
+     * Retrieves all courses a learner is enrolled in, with their enrollment
+     * counts, in a single query.
      * @param  userId the unique ID of the learner
      * @return        a list of {@link CourseDto}
      */
@@ -320,18 +432,11 @@ public class CourseServiceImpl extends GenericService<Course> implements CourseS
             User user = userService.retrieveUser(userId)
                     .orElseThrow(() -> new DynamoException("User not found with ID: " + userId, HttpStatus.NOT_FOUND));
 
-            List<UserCourseMap> courses = userCourseMapRepository.findByUserUniqueId(user.getUniqueId());
             List<CourseDto> courseDtos = new ArrayList<>();
-
-            courses.forEach(userCourseMap -> {
-                Course course = courseRepository.findById(userCourseMap.getCourse().getId()).get();
-                if (!"deleted".equalsIgnoreCase(course.getStatus())) {
-                    CourseDto dto = courseMapper.courseToCourseDto(course);
-                    dto.setPhotoKey(documentCdnUrl + dto.getPhotoKey());
-                    dto.setLearnersEnrolled(userCourseMapRepository.findByCourseId(course.getId()).size());
-                    courseDtos.add(dto);
-                }
-
+            courseRepository.findEnrolledCatalog(user.getUniqueId()).forEach(courseSummary -> {
+                CourseDto dto = courseMapper.courseToCourseDto(courseSummary.getCourse(), documentCdnUrl);
+                dto.setLearnersEnrolled(courseSummary.getLearnersEnrolled());
+                courseDtos.add(dto);
             });
 
             log.info("Leaving learnersEnrolledCourses()");
@@ -345,20 +450,70 @@ public class CourseServiceImpl extends GenericService<Course> implements CourseS
     }
 
     /**
-     * Uploads a course cover image to S3.
-     * @param photoKey the key under which the file will be stored
-     * @param file     the file to upload
+     * Clamps the requested page size to the configured bounds.
+     * @param  limit the requested page size, or {@code null} for the default
+     * @return       the page size to use
      */
-    private void uploadObjectInS3(String photoKey, MultipartFile file) {
-        log.info("Entering uploadObjectInS3(photoKey={})", photoKey);
-        try {
-            s3Service.uploadObject(bucketName, photoKey, file.getBytes());
-            log.info("Leaving uploadObjectInS3()");
-        } catch (DynamoS3Exception | IOException e) {
-            throw new DynamoException("Error while uploading document '%s'".formatted(file.getOriginalFilename()),
-                    HttpStatus.INTERNAL_SERVER_ERROR);
+    private int resolvePageLimit(Integer limit) {
+        if (limit == null) {
+            return defaultPageLimit;
         }
 
+        if (limit <= 0) {
+            throw new DynamoException("limit must be greater than zero", HttpStatus.BAD_REQUEST);
+        }
+
+        return Math.min(limit, maxPageLimit);
+    }
+
+    /**
+     * Builds a case-insensitive {@code LIKE} pattern matching names that start
+     * with the given prefix, escaping wildcard characters in the prefix.
+     * @param  namePrefix the name prefix, or {@code null}
+     * @return            the pattern, or {@code null} if no prefix was given
+     */
+    private String namePrefixPattern(String namePrefix) {
+        String prefix = blankToNull(namePrefix);
+        if (prefix == null) {
+            return null;
+        }
+
+        return prefix.toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    private String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * Wraps a page of courses, using the ID of its last course as the next cursor
+     * when more courses follow.
+     * @param  courseDtos the courses of the page
+     * @param  hasMore    whether more courses follow this page
+     * @return            the page
+     */
+    private CoursePageDto toPage(List<CourseDto> courseDtos, boolean hasMore) {
+        Long nextCursor = hasMore ? courseDtos.get(courseDtos.size() - 1).getId() : null;
+        return CoursePageDto.builder().courses(courseDtos).nextCursor(nextCursor).build();
+    }
+
+    /**
+     * Stores the keys of the generated image variants on a course, or clears them
+     * so that the new original is served when no variants were generated.
+     * @param course   the course
+     * @param variants the generated variants, if any
+     */
+    private static void discard(CoursePhotoUploader.PendingUpload photoUpload) {
+        if (photoUpload != null) {
+            photoUpload.discard();
+        }
+
+    }
+
+    private static void applyImageVariants(Course course, Optional<CourseImageProcessor.ImageVariants> variants) {
+        course.setThumbnailKey(variants.map(CourseImageProcessor.ImageVariants::thumbnailKey).orElse(null));
+        course.setCardKey(variants.map(CourseImageProcessor.ImageVariants::cardKey).orElse(null));
+        course.setHeroKey(variants.map(CourseImageProcessor.ImageVariants::heroKey).orElse(null));
     }
 
     /**
@@ -0,0 +1,37 @@
+package net.breezeware.learning.management.system.service.impl;
+
+import org.springframework.stereotype.Service;
+
+import net.breezeware.dynamo.generics.crud.service.GenericService;
+import net.breezeware.learning.management.system.dao.EmbeddingJobRepository;
+import net.breezeware.learning.management.system.entity.EmbeddingJob;
+import net.breezeware.learning.management.system.service.api.EmbeddingJobService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Implementation of the {@link EmbeddingJobService}. Writes embedding jobs to
+ * the outbox table as part of the caller's transaction.
+ */
+@Service
+@Slf4j
+public class EmbeddingJobServiceImpl extends GenericService<EmbeddingJob> implements EmbeddingJobService {
+
+    private final EmbeddingJobRepository embeddingJobRepository;
+
+    public EmbeddingJobServiceImpl(EmbeddingJobRepository embeddingJobRepository) {
+        super(embeddingJobRepository);
+        this.embeddingJobRepository = embeddingJobRepository;
+    }
+
+    /**
+     * Enqueues an embedding refresh for a course unless one is already pending.
+     * @param courseId the ID of the course whose embeddings should be refreshed
+     */
+    @Override
+    public void enqueueCourseRefresh(long courseId) {
+        log.info("Entering enqueueCourseRefresh(courseId={})", courseId);
+        int inserted = embeddingJobRepository.enqueue(courseId);
+        log.info("Leaving enqueueCourseRefresh() with {} new job(s)", inserted);
+    }
+}
@@ -0,0 +1,204 @@
+package net.breezeware.learning.management.system.service.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import net.breezeware.learning.management.system.dao.CourseRepository;
+import net.breezeware.learning.management.system.dao.EmbeddingJobRepository;
+import net.breezeware.learning.management.system.dao.TopicRepository;
+import net.breezeware.learning.management.system.entity.Course;
+import net.breezeware.learning.management.system.entity.EmbeddingJob;
+import net.breezeware.learning.management.system.service.api.EmbeddingService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the embedding job outbox. Due jobs are claimed with
+ * {@code FOR UPDATE SKIP LOCKED}, so several application nodes can poll the
+ * same table, and are processed on the {@code embeddingJobExecutor} pool
+ * outside of any database transaction. Failed jobs are retried with
+ * exponential backoff and moved to the {@code dead} state after the configured
+ * number of attempts.
+ * <p>
+ * A course is refreshed by one worker at a time: claims skip courses with a
+ * job in flight, and a transaction-scoped advisory lock on the course settles
+ * claims that overlap. Completed and superseded jobs are deleted once they are
+ * older than {@code lms.embedding.jobs.retention-hours}.
+ */
+@Component
+@Slf4j
+public class EmbeddingJobWorker {
+
+    private static final String STATUS_RETRYING = "retrying";
+    private static final String STATUS_DEAD = "dead";
+
+    private final EmbeddingJobRepository embeddingJobRepository;
+    private final CourseRepository courseRepository;
+    private final TopicRepository topicRepository;
+    private final EmbeddingService embeddingService;
+    private final CourseDocumentChunker courseDocumentChunker;
+    private final TransactionTemplate transactionTemplate;
+    private final AsyncTaskExecutor embeddingJobExecutor;
+
+    @Value("${lms.embedding.jobs.batch-size:16}")
+    int batchSize;
+
+    @Value("${lms.embedding.jobs.max-attempts:6}")
+    int maxAttempts;
+
+    @Value("${lms.embedding.jobs.backoff-base-seconds:5}")
+    long backoffBaseSeconds;
+
+    @Value("${lms.embedding.jobs.backoff-max-seconds:900}")
+    long backoffMaxSeconds;
+
+    @Value("${lms.embedding.jobs.lease-seconds:300}")
+    long leaseSeconds;
+
+    @Value("${lms.embedding.jobs.retention-hours:168}")
+    int retentionHours;
+
+    @Value("${lms.embedding.jobs.purge-batch-size:1000}")
+    int purgeBatchSize;
+
+    public EmbeddingJobWorker(EmbeddingJobRepository embeddingJobRepository, CourseRepository courseRepository,
+            TopicRepository topicRepository, EmbeddingService embeddingService,
+            CourseDocumentChunker courseDocumentChunker, TransactionTemplate transactionTemplate,
+            @Qualifier("embeddingJobExecutor") AsyncTaskExecutor embeddingJobExecutor) {
+        this.embeddingJobRepository = embeddingJobRepository;
+        this.courseRepository = courseRepository;
+        this.topicRepository = topicRepository;
+        this.embeddingService = embeddingService;
+        this.courseDocumentChunker = courseDocumentChunker;
+        this.transactionTemplate = transactionTemplate;
+        this.embeddingJobExecutor = embeddingJobExecutor;
+    }
+
+    /**
+     * Claims the next batch of due jobs and processes them concurrently, one task
+     * per course.
+     */
+    @Scheduled(fixedDelayString = "${lms.embedding.jobs.poll-interval-ms:2000}")
+    public void drain() {
+        List<EmbeddingJob> jobs = transactionTemplate.execute(status -> {
+            List<EmbeddingJob> candidates = embeddingJobRepository.findClaimableJobs(batchSize, leaseSeconds);
+            if (candidates.isEmpty()) {
+                return candidates;
+            }
+
+            // Another worker may have claimed the same course from a different row meanwhile
+            List<Long> candidateIds = candidates.stream().map(EmbeddingJob::getId).toList();
+            List<EmbeddingJob> claimed = candidates.stream()
+                    .filter(job -> embeddingJobRepository.tryLockCourse(job.getCourseId())
+                            && embeddingJobRepository.countInFlight(job.getCourseId(), leaseSeconds,
+                                    candidateIds) == 0)
+                    .toList();
+            if (!claimed.isEmpty()) {
+                embeddingJobRepository.markProcessing(claimed.stream().map(EmbeddingJob::getId).toList());
+            }
+
+            return claimed;
+        });
+
+        if (jobs == null || jobs.isEmpty()) {
+            return;
+        }
+
+        log.info("Claimed {} embedding job(s)", jobs.size());
+
+        // Several jobs of one course collapse into a single refresh
+        Map<Long, List<EmbeddingJob>> jobsByCourse =
+                jobs.stream().collect(Collectors.groupingBy(EmbeddingJob::getCourseId, LinkedHashMap::new,
+                        Collectors.toList()));
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        jobsByCourse.forEach((courseId, courseJobs) -> tasks
+                .add(CompletableFuture.runAsync(() -> process(courseId, courseJobs), embeddingJobExecutor)));
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+    }
+
+    /**
+     * Deletes completed and superseded jobs older than the retention period, a
+     * bounded batch per transaction.
+     */
+    @Scheduled(initialDelayString = "${lms.embedding.jobs.purge-interval-ms:3600000}",
+            fixedDelayString = "${lms.embedding.jobs.purge-interval-ms:3600000}")
+    public void purgeFinishedJobs() {
+        log.info("Entering purgeFinishedJobs()");
+        int total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate
+                    .execute(status -> embeddingJobRepository.deleteFinishedBefore(retentionHours, purgeBatchSize));
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+
+        log.info("Leaving purgeFinishedJobs() with {} job(s) deleted", total);
+    }
+
+    /**
+     * Refreshes the embeddings of one course and records the outcome on its jobs.
+     * On failure only the newest job is kept for a retry; the others are
+     * superseded by it, as a course has at most one queued job.
+     * @param courseId the ID of the course
+     * @param jobs     the claimed jobs of the course
+     */
+    private void process(long courseId, List<EmbeddingJob> jobs) {
+        List<Long> jobIds = jobs.stream().map(EmbeddingJob::getId).toList();
+        try {
+            refreshCourse(courseId);
+            transactionTemplate.executeWithoutResult(status -> embeddingJobRepository.markCompleted(jobIds));
+        } catch (Exception e) {
+            // Claiming already counted this attempt
+            int attempts = jobs.stream().mapToInt(EmbeddingJob::getAttempts).max().orElse(0) + 1;
+            boolean dead = attempts >= maxAttempts;
+            long delaySeconds = Math.min(backoffMaxSeconds, backoffBaseSeconds << Math.min(attempts - 1, 20));
+            log.error("Embedding job(s) {} for course {} failed on attempt {}{}: {}", jobIds, courseId, attempts,
+                    dead ? ", giving up" : "", e.getMessage(), e);
+            long newestId = jobs.stream().map(EmbeddingJob::getId).max(Comparator.naturalOrder()).orElseThrow();
+            List<Long> supersededIds = jobIds.stream().filter(id -> id != newestId).toList();
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!supersededIds.isEmpty()) {
+                    embeddingJobRepository.markSuperseded(supersededIds);
+                }
+
+                embeddingJobRepository.markFailed(List.of(newestId), dead ? STATUS_DEAD : STATUS_RETRYING,
+                        String.valueOf(e.getMessage()), delaySeconds);
+            });
+        }
+
+    }
+
+    /**
+     * Brings the embeddings of a course in line with its current state. Deleted
+     * or missing courses have their embeddings removed.
+     * @param courseId the ID of the course
+     */
+    private void refreshCourse(long courseId) {
+        Course course = courseRepository.findById(courseId).orElse(null);
+        if (course == null) {
+            log.warn("Course {} no longer exists, skipping embedding refresh", courseId);
+            return;
+        }
+
+        if ("deleted".equalsIgnoreCase(course.getStatus())) {
+            embeddingService.deleteEmbeddings(course.getUniqueId());
+            return;
+        }
+
+        embeddingService.refreshDocumentChunks(course.getUniqueId(),
+                courseDocumentChunker.chunk(course, topicRepository.findByCourseId(courseId)));
+    }
+}
@@ -1,30 +1,45 @@
 package net.breezeware.learning.management.system.service.impl;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
-import org.springframework.ai.chat.messages.Message;
-import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.model.Generation;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.chat.prompt.SystemPromptTemplate;
 import org.springframework.ai.converter.ListOutputConverter;
-import org.springframework.ai.openai.OpenAiChatModel;
-import org.springframework.ai.openai.OpenAiChatOptions;
-import org.springframework.ai.openai.OpenAiEmbeddingModel;
 import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import net.breezeware.dynamo.generics.crud.service.GenericService;
 import net.breezeware.dynamo.utils.exception.DynamoException;
+import net.breezeware.learning.management.system.dao.VectorStoreMatch;
 import net.breezeware.learning.management.system.dao.VectorStoreRepository;
+import net.breezeware.learning.management.system.dto.ChatStreamEvent;
 import net.breezeware.learning.management.system.dto.EmbeddingDto;
 import net.breezeware.learning.management.system.entity.VectorStore;
 import net.breezeware.learning.management.system.service.api.EmbeddingService;
+import net.breezeware.learning.management.system.service.api.VectorIndex;
+import net.breezeware.learning.management.system.util.AdaptiveConcurrencyLimiter;
+import net.breezeware.learning.management.system.util.ConcurrencyLimitExceededException;
+import net.breezeware.learning.management.system.util.TransactionCallbacks;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -32,16 +47,40 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class EmbeddingServiceImpl extends GenericService<VectorStore> implements EmbeddingService {
 
-    private final OpenAiEmbeddingModel openAiEmbeddingClient;
+    private final OpenAiBulkhead openAiBulkhead;
     private final VectorStoreRepository vectorStoreRepository;
-    private final OpenAiChatModel openAiChatModel;
+    private final VectorIndex vectorIndex;
+    private final QueryEmbeddingCache queryEmbeddingCache;
+    private final SemanticAnswerCache semanticAnswerCache;
+    private final ChatPromptFactory chatPromptFactory;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${lms.chat.retrieval.top-k:5}")
+    int retrievalTopK;
+
+    @Value("${lms.chat.retrieval.similarity-threshold:0.0}")
+    double retrievalSimilarityThreshold;
+
+    @Value("${lms.chat.retrieval.ef-search:0}")
+    int retrievalEfSearch;
+
+    @Value("${lms.embedding.batch.max-inputs:256}")
+    int embeddingBatchMaxInputs;
+
+    @Value("${lms.embedding.batch.max-chars:200000}")
+    long embeddingBatchMaxChars;
 
-    public EmbeddingServiceImpl(OpenAiEmbeddingModel openAiEmbeddingClient, VectorStoreRepository vectorStoreRepository,
-            OpenAiChatModel openAiChatModel) {
+    public EmbeddingServiceImpl(OpenAiBulkhead openAiBulkhead, VectorStoreRepository vectorStoreRepository,
+            VectorIndex vectorIndex, QueryEmbeddingCache queryEmbeddingCache, SemanticAnswerCache semanticAnswerCache,
+            ChatPromptFactory chatPromptFactory, TransactionTemplate transactionTemplate) {
         super(vectorStoreRepository);
-        this.openAiEmbeddingClient = openAiEmbeddingClient;
+        this.openAiBulkhead = openAiBulkhead;
         this.vectorStoreRepository = vectorStoreRepository;
-        this.openAiChatModel = openAiChatModel;
+        this.vectorIndex = vectorIndex;
+        this.queryEmbeddingCache = queryEmbeddingCache;
+        this.semanticAnswerCache = semanticAnswerCache;
+        this.chatPromptFactory = chatPromptFactory;
+        this.transactionTemplate = transactionTemplate;
     }
 
     /**
@@ -51,39 +90,86 @@ public class EmbeddingServiceImpl extends GenericService<VectorStore> implements
      */
     @Override
     public void documentEmbedding(EmbeddingDto embeddingDto) {
-        try {
-            // Extract document details
-            UUID referenceId = embeddingDto.getReferenceId();
-            String content = embeddingDto.getContent();
-
-            if (referenceId == null || content == null || content.isEmpty()) {
-                log.error("Document ID or content cannot be null or empty for embedding.");
-                throw new DynamoException("Document ID or content cannot be null or empty for embedding.",
-                        HttpStatus.INTERNAL_SERVER_ERROR);
-            }
+        documentEmbeddings(List.of(embeddingDto));
+    }
 
-            // Generate embeddings using the AI model
-            float[] embedding = openAiEmbeddingClient.embed(content);
-            if (embedding == null || embedding.length == 0) {
-                log.error("Embedding generation failed for the document with ID: {}", referenceId);
-                throw new DynamoException("Embedding generation failed for the document.",
-                        HttpStatus.INTERNAL_SERVER_ERROR);
+    /**
+     * Generates embeddings for the given documents with as few embedding requests
+     * as the provider limits allow and saves them to the VectorStore with JDBC
+     * batch inserts. The embedding requests run before any rows are written, so
+     * no database transaction is held open while waiting on the provider.
+     * @param embeddingDtos The documents to generate embeddings for.
+     */
+    @Override
+    public void documentEmbeddings(List<EmbeddingDto> embeddingDtos) {
+        log.info("Entering documentEmbeddings() with {} documents", embeddingDtos.size());
+        List<VectorStore> vectorStores = embedDocuments(embeddingDtos);
+        transactionTemplate.executeWithoutResult(status -> persistEmbeddings(vectorStores));
+        log.info("Leaving documentEmbeddings()");
+    }
+
+    /**
+     * Brings the stored chunks of a reference in line with the given chunks. Chunks
+     * whose key and content hash are already stored are kept as they are, stale
+     * chunks are deleted and only new or changed chunks are embedded.
+     * @param referenceId The reference the chunks belong to.
+     * @param chunks      The complete set of chunks for the reference.
+     */
+    @Override
+    public void refreshDocumentChunks(UUID referenceId, List<EmbeddingDto> chunks) {
+        log.info("Entering refreshDocumentChunks(referenceId={})", referenceId);
+        Map<String, String> storedHashes = new HashMap<>();
+        List<UUID> staleIds = new ArrayList<>();
+        Map<String, String> wantedHashes = new HashMap<>();
+        chunks.forEach(chunk -> wantedHashes.put(chunk.getChunkKey(), contentHash(chunk.getContent())));
+
+        vectorStoreRepository.findChunksByReference(referenceId).forEach(stored -> {
+            String wantedHash = wantedHashes.get(stored.getChunkKey());
+            if (stored.getChunkKey() != null && Objects.equals(wantedHash, stored.getContentHash())
+                    && !storedHashes.containsKey(stored.getChunkKey())) {
+                storedHashes.put(stored.getChunkKey(), stored.getContentHash());
+            } else {
+                staleIds.add(stored.getUniqueId());
             }
 
-            // Create a new VectorStore entity with the document's embedding
-            VectorStore vectorStore = VectorStore.builder().uniqueId(UUID.randomUUID()).reference(referenceId)
-                    .content(content).embedding(embedding).build();
+        });
+
+        List<EmbeddingDto> changedChunks = chunks.stream()
+                .filter(chunk -> !storedHashes.containsKey(chunk.getChunkKey()))
+                .map(chunk -> EmbeddingDto.builder().content(chunk.getContent()).referenceId(referenceId)
+                        .chunkKey(chunk.getChunkKey()).build())
+                .toList();
+        List<VectorStore> vectorStores = embedDocuments(changedChunks);
+
+        // Swap stale chunks for the new ones atomically
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!staleIds.isEmpty()) {
+                vectorStoreRepository.deleteByUniqueIds(staleIds);
+                TransactionCallbacks.afterCommit(() -> {
+                    vectorIndex.remove(staleIds);
+                    semanticAnswerCache.invalidateReference(referenceId);
+                });
+            }
 
-            // Save the generated embeddings in the VectorStore
-            create(vectorStore);
-            log.info("VectorStore successfully loaded with data for Document ID: {}", referenceId);
+            persistEmbeddings(vectorStores);
+        });
 
-        } catch (Exception ex) {
-            log.error("Error occurred while embedding document ID: {}. Details: {}", embeddingDto.getReferenceId(),
-                    ex.getMessage(), ex);
-            throw new DynamoException("Error embedding document" + ex, HttpStatus.INTERNAL_SERVER_ERROR);
-        }
+        log.info("Leaving refreshDocumentChunks() with {} chunks re-embedded and {} removed", changedChunks.size(),
+                staleIds.size());
+    }
 
+    /**
+     * Deletes all embeddings stored for the given reference and removes them from
+     * the vector index once the deletion has committed.
+     * @param referenceId The reference whose embeddings are deleted.
+     */
+    @Override
+    public void deleteEmbeddings(UUID referenceId) {
+        vectorStoreRepository.deleteByReference(referenceId);
+        TransactionCallbacks.afterCommit(() -> {
+            vectorIndex.removeByReference(referenceId);
+            semanticAnswerCache.invalidateReference(referenceId);
+        });
     }
 
     /**
@@ -96,36 +182,26 @@ public class EmbeddingServiceImpl extends GenericService<VectorStore> implements
     public String createChatResponse(String message) {
         try {
             // Retrieve relevant documents based on the query embedding
-            List<VectorStore> documents = findRelevantDocumentsByQueryEmbedding(message);
+            float[] queryEmbedding = embedQuery(message);
+            List<VectorStoreMatch> documents = findRelevantDocumentsByQueryEmbedding(queryEmbedding);
 
             if (documents.isEmpty()) {
                 log.warn("No relevant documents found for the message: {}", message);
             }
 
-            // Concatenate the content of all relevant documents
-            String concatenatedDocuments =
-                    documents.stream().map(VectorStore::getContent).collect(Collectors.joining(System.lineSeparator()));
-
-            // Construct the system message with the concatenated document content
-            String template = """
-                    You are here to provide accurate answers based on the information from the DOCUMENTS section.
-                    If you are unsure about something or no document is available,
-                    reply politely that you don't know the answer and mention who you are.
-                    DOCUMENTS: {documents}
-                    """;
-
-            Message systemMessage =
-                    new SystemPromptTemplate(template).createMessage(Map.of("documents", concatenatedDocuments));
-
-            UserMessage userMessage = new UserMessage(message);
+            // Reuse the answer of a near-identical question asked against the same documents
+            Optional<String> cachedResponse = semanticAnswerCache.find(queryEmbedding, documents);
+            if (cachedResponse.isPresent()) {
+                log.info("Serving chat response from the semantic answer cache.");
+                return cachedResponse.get();
+            }
 
-            // Configure OpenAI chat options
-            OpenAiChatOptions openAiChatOptions = OpenAiChatOptions.builder().build();
+            long cacheGeneration = semanticAnswerCache.generation();
 
             // Create a prompt and call the chat model
-            Prompt prompt = new Prompt(List.of(systemMessage, userMessage), openAiChatOptions);
+            Prompt prompt = chatPromptFactory.createPrompt(message, documents);
 
-            Generation generation = openAiChatModel.call(prompt).getResult();
+            Generation generation = openAiBulkhead.call(prompt).getResult();
 
             ListOutputConverter listOutputConverter = new ListOutputConverter(new DefaultConversionService());
 
@@ -133,8 +209,12 @@ public class EmbeddingServiceImpl extends GenericService<VectorStore> implements
 
             log.info("Generated chat response successfully.");
 
-            return list.toString();
+            String response = list.toString();
+            semanticAnswerCache.put(queryEmbedding, documents, response, cacheGeneration);
+            return response;
 
+        } catch (ConcurrencyLimitExceededException ex) {
+            throw ex;
         } catch (Exception ex) {
             log.error("Error generating chat response for message: {}. Details: {}", message, ex.getMessage(), ex);
             throw new DynamoException("Error creating chat response" + ex, HttpStatus.INTERNAL_SERVER_ERROR);
@@ -143,35 +223,251 @@ public class EmbeddingServiceImpl extends GenericService<VectorStore> implements
     }
 
     /**
-     * Finds relevant documents based on the query embedding for a given message.
+     * Streams a chat response for the user message. The chat permit is taken on
+     * the calling thread, so that a busy chat model fails the request with a
+     * {@link ConcurrencyLimitExceededException} before the event stream is
+     * committed. Retrieval then runs on a bounded elastic scheduler. The first
+     * event carries the references of the retrieved documents, followed by the
+     * tokens as the chat model generates them.
+     * @param  message                           The user message.
+     * @return                                   The stream of chat events.
+     * @throws ConcurrencyLimitExceededException if the chat model is at its limit.
+     */
+    @Override
+    public Flux<ChatStreamEvent> streamChatResponse(String message) {
+        AdaptiveConcurrencyLimiter.Permit permit = openAiBulkhead.reserveChat();
+        return Mono.fromCallable(() -> findRelevantDocumentsByQueryEmbedding(embedQuery(message)))
+                .subscribeOn(Schedulers.boundedElastic()).flatMapMany(documents -> {
+                    if (documents.isEmpty()) {
+                        log.warn("No relevant documents found for the message: {}", message);
+                    }
+
+                    List<UUID> references = documents.stream().map(VectorStoreMatch::getReference).distinct().toList();
+                    ChatStreamEvent sourcesEvent =
+                            ChatStreamEvent.builder().type(ChatStreamEvent.SOURCES).references(references).build();
+
+                    Flux<ChatStreamEvent> tokenEvents = openAiBulkhead
+                            .stream(chatPromptFactory.createPrompt(message, documents), permit)
+                            .mapNotNull(chatResponse -> chatResponse.getResult() == null ? null
+                                    : chatResponse.getResult().getOutput().getContent())
+                            .filter(token -> !token.isEmpty())
+                            .map(token -> ChatStreamEvent.builder().type(ChatStreamEvent.TOKEN).content(token).build());
+
+                    return Flux.concat(Flux.just(sourcesEvent), tokenEvents,
+                            Flux.just(ChatStreamEvent.builder().type(ChatStreamEvent.DONE).build()));
+                }).onErrorResume(ex -> {
+                    // The embedding model sheds the query only after the stream is committed
+                    if (ex instanceof ConcurrencyLimitExceededException) {
+                        return Flux.just(ChatStreamEvent.builder().type(ChatStreamEvent.ERROR)
+                                .content("Chat is busy, please retry shortly").build());
+                    }
+
+                    log.error("Error streaming chat response for message: {}. Details: {}", message, ex.getMessage(),
+                            ex);
+                    return Flux.just(ChatStreamEvent.builder().type(ChatStreamEvent.ERROR)
+                            .content("Error creating chat response").build());
+                }).doFinally(signal -> permit.release());
+    }
+
+    /**
+     * Finds relevant documents based on the query embedding for a given message,
+     * using the configured top-K, similarity threshold and HNSW ef_search.
      * @param  message The user message to search for relevant documents.
      * @return         A list of relevant documents.
      */
-    public List<VectorStore> findRelevantDocumentsByQueryEmbedding(String message) {
+    public List<VectorStoreMatch> findRelevantDocumentsByQueryEmbedding(String message) {
+        return findRelevantDocumentsByQueryEmbedding(embedQuery(message));
+    }
+
+    /**
+     * Finds relevant documents for an already computed query embedding, using the
+     * configured top-K, similarity threshold and HNSW ef_search.
+     * @param  queryEmbedding The embedding of the user message.
+     * @return                A list of relevant documents.
+     */
+    private List<VectorStoreMatch> findRelevantDocumentsByQueryEmbedding(float[] queryEmbedding) {
+        SearchRequest request =
+                SearchRequest.defaults().withTopK(retrievalTopK).withSimilarityThreshold(retrievalSimilarityThreshold);
+        return searchDocuments(queryEmbedding, request.getTopK(), 1 - request.getSimilarityThreshold(),
+                retrievalEfSearch);
+    }
+
+    /**
+     * Finds the documents nearest to the embedding of the given query.
+     * @param  query       The text to search for relevant documents.
+     * @param  topK        The maximum number of documents to return.
+     * @param  maxDistance The maximum cosine distance a document may have to be
+     *                     returned.
+     * @param  efSearch    The HNSW ef_search value, or zero to keep the database
+     *                     default.
+     * @return             A list of relevant documents ordered by relevance.
+     */
+    @Override
+    public List<VectorStoreMatch> findRelevantDocuments(String query, int topK, double maxDistance, int efSearch) {
+        log.info("Finding relevant documents for the message: {}", query);
+        validateTopK(topK);
+        return searchDocuments(embedQuery(query), topK, maxDistance, efSearch);
+    }
+
+    private static void validateTopK(int topK) {
+        if (topK <= 0) {
+            log.error("Invalid topK {} for the document search.", topK);
+            throw new DynamoException("topK must be greater than zero.", HttpStatus.BAD_REQUEST);
+        }
+
+    }
+
+    /**
+     * Embeds the given documents, sending as many of them per request as the
+     * configured input count and character budget allow.
+     * @param  embeddingDtos The documents to embed.
+     * @return               The VectorStore entries, in the order of the documents.
+     */
+    private List<VectorStore> embedDocuments(List<EmbeddingDto> embeddingDtos) {
         try {
-            log.info("Finding relevant documents for the message: {}", message);
+            embeddingDtos.forEach(embeddingDto -> {
+                if (embeddingDto.getReferenceId() == null || embeddingDto.getContent() == null
+                        || embeddingDto.getContent().isEmpty()) {
+                    log.error("Document ID or content cannot be null or empty for embedding.");
+                    throw new DynamoException("Document ID or content cannot be null or empty for embedding.",
+                            HttpStatus.INTERNAL_SERVER_ERROR);
+                }
+
+            });
+
+            List<VectorStore> vectorStores = new ArrayList<>(embeddingDtos.size());
+            int start = 0;
+            while (start < embeddingDtos.size()) {
+                // Grow the request until either provider limit would be exceeded
+                int end = start;
+                long chars = 0;
+                while (end < embeddingDtos.size() && end - start < embeddingBatchMaxInputs
+                        && (end == start || chars + embeddingDtos.get(end).getContent().length()
+                                <= embeddingBatchMaxChars)) {
+                    chars += embeddingDtos.get(end).getContent().length();
+                    end++;
+                }
+
+                List<EmbeddingDto> batch = embeddingDtos.subList(start, end);
+                List<float[]> embeddings =
+                        openAiBulkhead.embed(batch.stream().map(EmbeddingDto::getContent).toList());
+                if (embeddings == null || embeddings.size() != batch.size()) {
+                    log.error("Embedding generation returned {} embeddings for {} documents",
+                            embeddings == null ? 0 : embeddings.size(), batch.size());
+                    throw new DynamoException("Embedding generation failed for the documents.",
+                            HttpStatus.INTERNAL_SERVER_ERROR);
+                }
+
+                for (int i = 0; i < batch.size(); i++) {
+                    EmbeddingDto embeddingDto = batch.get(i);
+                    float[] embedding = embeddings.get(i);
+                    if (embedding == null || embedding.length == 0) {
+                        log.error("Embedding generation failed for the document with ID: {}",
+                                embeddingDto.getReferenceId());
+                        throw new DynamoException("Embedding generation failed for the document.",
+                                HttpStatus.INTERNAL_SERVER_ERROR);
+                    }
+
+                    vectorStores.add(VectorStore.builder().uniqueId(UUID.randomUUID())
+                            .reference(embeddingDto.getReferenceId()).content(embeddingDto.getContent())
+                            .embedding(embedding).chunkKey(embeddingDto.getChunkKey())
+                            .contentHash(contentHash(embeddingDto.getContent())).build());
+                }
+
+                log.info("Embedded {} documents in one request", batch.size());
+                start = end;
+            }
 
-            // Generate the embedding for the query
-            SearchRequest request = SearchRequest.query(message);
-            float[] queryEmbedding = openAiEmbeddingClient.embed(request.getQuery());
+            return vectorStores;
+        } catch (ConcurrencyLimitExceededException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            log.error("Error occurred while embedding {} documents. Details: {}", embeddingDtos.size(),
+                    ex.getMessage(), ex);
+            throw new DynamoException("Error embedding document" + ex, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+
+    }
+
+    /**
+     * Saves embedded documents with JDBC batch inserts and publishes them to the
+     * vector index once the surrounding transaction has committed.
+     * @param vectorStores The entries to save.
+     */
+    private void persistEmbeddings(List<VectorStore> vectorStores) {
+        if (vectorStores.isEmpty()) {
+            return;
+        }
+
+        vectorStoreRepository.batchInsert(vectorStores);
+        Set<UUID> references = vectorStores.stream().map(VectorStore::getReference).collect(Collectors.toSet());
+        TransactionCallbacks.afterCommit(() -> {
+            vectorStores.forEach(vectorIndex::add);
+            references.forEach(semanticAnswerCache::invalidateReference);
+        });
+        log.info("VectorStore successfully loaded with {} entries for {} documents", vectorStores.size(),
+                references.size());
+    }
+
+    /**
+     * Computes the SHA-256 hash of chunk content.
+     * @param  content The chunk content.
+     * @return         The hex-encoded hash.
+     */
+    private static String contentHash(String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+    }
+
+    /**
+     * Generates the embedding for a query, reusing it for repeated prompts.
+     * @param  query The text to embed.
+     * @return       The query embedding.
+     */
+    private float[] embedQuery(String query) {
+        try {
+            float[] queryEmbedding = queryEmbeddingCache.getOrEmbed(query, openAiBulkhead::embed);
 
             if (queryEmbedding == null || queryEmbedding.length == 0) {
-                log.error("Failed to generate embedding for the query: {}", message);
+                log.error("Failed to generate embedding for the query: {}", query);
                 throw new IllegalStateException("Embedding generation failed for query.");
             }
 
-            // Set up the search request with similarity threshold and top k results
-            // double similarityThreshold = 1 - request.getSimilarityThreshold();
-            // int topK = request.getTopK();
+            return queryEmbedding;
+        } catch (ConcurrencyLimitExceededException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            log.error("Error embedding query: {}. Details: {}", query, ex.getMessage(), ex);
+            throw new DynamoException("Error embedding query" + ex, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+
+    }
 
-            // Query the VectorStore repository for relevant documents
-            List<VectorStore> relevantDocuments = vectorStoreRepository.findRelevantDocuments(queryEmbedding);
+    /**
+     * Queries the vector index for the top K documents within the distance cutoff.
+     * @param  queryEmbedding The query embedding.
+     * @param  topK           The maximum number of documents to return.
+     * @param  maxDistance    The maximum cosine distance a document may have to be
+     *                        returned.
+     * @param  efSearch       The HNSW ef_search value, or zero to keep the
+     *                        database default.
+     * @return                A list of relevant documents ordered by relevance.
+     */
+    private List<VectorStoreMatch> searchDocuments(float[] queryEmbedding, int topK, double maxDistance, int efSearch) {
+        validateTopK(topK);
+        try {
+            List<VectorStoreMatch> relevantDocuments = vectorIndex.search(queryEmbedding, topK, maxDistance, efSearch);
 
             log.info("Found {} relevant documents for the query.", relevantDocuments.size());
             return relevantDocuments;
 
         } catch (Exception ex) {
-            log.error("Error finding relevant documents for message: {}. Details: {}", message, ex.getMessage(), ex);
+            log.error("Error finding relevant documents. Details: {}", ex.getMessage(), ex);
             throw new DynamoException("Error finding relevant documents" + ex, HttpStatus.INTERNAL_SERVER_ERROR);
 
         }
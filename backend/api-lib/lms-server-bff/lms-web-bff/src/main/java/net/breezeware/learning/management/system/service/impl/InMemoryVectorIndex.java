@@ -0,0 +1,332 @@
+package net.breezeware.learning.management.system.service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import net.breezeware.learning.management.system.dao.VectorStoreMatch;
+import net.breezeware.learning.management.system.dao.VectorStoreRepository;
+import net.breezeware.learning.management.system.entity.VectorStore;
+import net.breezeware.learning.management.system.service.api.VectorIndex;
+import net.breezeware.learning.management.system.util.VectorMath;
+
+import lombok.extern.slf4j.Slf4j;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * {@link VectorIndex} held in the JVM. Embeddings are normalized once and kept
+ * in a single contiguous {@code float[]}, so cosine distance reduces to a dot
+ * product over primitive memory and a search never touches the database. The
+ * index is warm-loaded from {@code lms_svc.vector_store} at startup and kept in
+ * sync by {@link EmbeddingServiceImpl} after each commit. The application
+ * reports itself ready to accept traffic only once the warm load is complete,
+ * so a readiness probe keeps searches away from a partially loaded index.
+ * Searches report the same {@code lms.vector-index.*} meters as
+ * {@link PgVectorIndex}.
+ * <p>
+ * The after-commit hooks only see the writes of this node. When several nodes
+ * share the database, or the embedding jobs run on another node, the index is
+ * also reconciled with {@code vector_store} every
+ * {@code lms.vector-index.memory.refresh-interval-ms}, so it lags the database
+ * by at most that interval.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "lms.vector-index.backend", havingValue = "memory")
+public class InMemoryVectorIndex implements VectorIndex {
+
+    private final VectorStoreRepository vectorStoreRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> positions = new HashMap<>();
+    private final Timer searchTimer;
+    private final DistributionSummary resultsSummary;
+
+    @Value("${lms.vector-index.dimensions:1536}")
+    int dimensions;
+
+    @Value("${lms.vector-index.warm-load-page-size:500}")
+    int warmLoadPageSize;
+
+    private float[] vectors = new float[0];
+    private UUID[] uniqueIds = new UUID[0];
+    private UUID[] references = new UUID[0];
+    private String[] contents = new String[0];
+    private int size;
+
+    public InMemoryVectorIndex(VectorStoreRepository vectorStoreRepository, ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry) {
+        this.vectorStoreRepository = vectorStoreRepository;
+        this.eventPublisher = eventPublisher;
+        this.searchTimer = Timer.builder("lms.vector-index.search").tag("quantization", "none")
+                .publishPercentiles(0.5, 0.95, 0.99).register(meterRegistry);
+        this.resultsSummary = DistributionSummary.builder("lms.vector-index.results").tag("quantization", "none")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads every persisted embedding into the index, one page at a time.
+     * Readiness is held at {@link ReadinessState#REFUSING_TRAFFIC} until the
+     * last page is loaded; a failed load fails the startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmLoad() {
+        log.info("Entering warmLoad()");
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        int pageNumber = 0;
+        Page<VectorStore> page;
+        do {
+            page = vectorStoreRepository.findAll(PageRequest.of(pageNumber++, warmLoadPageSize, Sort.by("id")));
+            page.forEach(this::add);
+        } while (page.hasNext());
+
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        log.info("Leaving warmLoad() with {} entries", size());
+    }
+
+    /**
+     * Reconciles the index with {@code vector_store}: entries written by other
+     * nodes are loaded and entries deleted by them are removed. Chunks are never
+     * updated in place, so comparing the unique IDs is enough.
+     */
+    @Scheduled(initialDelayString = "${lms.vector-index.memory.refresh-interval-ms:60000}",
+            fixedDelayString = "${lms.vector-index.memory.refresh-interval-ms:60000}")
+    public void refresh() {
+        log.info("Entering refresh()");
+        // Taken before the database is read, so that entries added meanwhile by the
+        // after-commit hooks of this node are not mistaken for deleted ones
+        Set<UUID> indexed;
+        lock.readLock().lock();
+        try {
+            indexed = new HashSet<>(positions.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Set<UUID> stored = new HashSet<>(vectorStoreRepository.findAllUniqueIds());
+        List<UUID> removed = indexed.stream().filter(uniqueId -> !stored.contains(uniqueId)).toList();
+        List<UUID> added = stored.stream().filter(uniqueId -> !indexed.contains(uniqueId)).toList();
+        remove(removed);
+        for (int start = 0; start < added.size(); start += warmLoadPageSize) {
+            List<UUID> page = added.subList(start, Math.min(added.size(), start + warmLoadPageSize));
+            vectorStoreRepository.findByUniqueIds(page).forEach(this::add);
+        }
+
+        log.info("Leaving refresh() with {} entries added and {} removed", added.size(), removed.size());
+    }
+
+    @Override
+    public List<VectorStoreMatch> search(float[] queryEmbedding, int topK, double maxDistance, int efSearch) {
+        long start = System.nanoTime();
+        float[] query = VectorMath.normalize(queryEmbedding);
+        PriorityQueue<Match> nearest = new PriorityQueue<>(Comparator.comparingDouble(Match::distance).reversed());
+
+        lock.readLock().lock();
+        try {
+            if (query.length != dimensions) {
+                throw new IllegalArgumentException(
+                        "Query embedding has %d dimensions, expected %d".formatted(query.length, dimensions));
+            }
+
+            for (int i = 0; i < size; i++) {
+                double distance = 1 - VectorMath.dot(vectors, i * dimensions, query);
+                if (distance > maxDistance) {
+                    continue;
+                }
+
+                if (nearest.size() < topK) {
+                    nearest.add(new Match(i, distance));
+                } else if (distance < nearest.peek().distance()) {
+                    nearest.poll();
+                    nearest.add(new Match(i, distance));
+                }
+
+            }
+
+            List<Match> ordered = new ArrayList<>(nearest);
+            ordered.sort(Comparator.comparingDouble(Match::distance));
+            List<VectorStoreMatch> results = new ArrayList<>(ordered.size());
+            ordered.forEach(match -> results.add(new Result(uniqueIds[match.position()],
+                    references[match.position()], contents[match.position()], match.distance())));
+            searchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            resultsSummary.record(results.size());
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+    }
+
+    @Override
+    public void add(VectorStore vectorStore) {
+        float[] embedding = vectorStore.getEmbedding();
+        if (embedding == null || embedding.length != dimensions) {
+            log.warn("Skipping vector store entry {} with unexpected embedding dimensions",
+                    vectorStore.getUniqueId());
+            return;
+        }
+
+        float[] normalized = VectorMath.normalize(embedding);
+
+        lock.writeLock().lock();
+        try {
+            if (positions.containsKey(vectorStore.getUniqueId())) {
+                return;
+            }
+
+            ensureCapacity(size + 1);
+            System.arraycopy(normalized, 0, vectors, size * dimensions, dimensions);
+            uniqueIds[size] = vectorStore.getUniqueId();
+            references[size] = vectorStore.getReference();
+            contents[size] = vectorStore.getContent();
+            positions.put(vectorStore.getUniqueId(), size);
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+    }
+
+    @Override
+    public void remove(Collection<UUID> entryIds) {
+        lock.writeLock().lock();
+        try {
+            entryIds.forEach(uniqueId -> {
+                Integer position = positions.get(uniqueId);
+                if (position != null) {
+                    removeAt(position);
+                }
+
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+    }
+
+    @Override
+    public void removeByReference(UUID reference) {
+        lock.writeLock().lock();
+        try {
+            int i = 0;
+            while (i < size) {
+                if (reference.equals(references[i])) {
+                    removeAt(i);
+                } else {
+                    i++;
+                }
+
+            }
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+    }
+
+    /**
+     * Returns the number of entries currently held in the index.
+     * @return the entry count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+    }
+
+    /**
+     * Removes the entry at the given position by moving the last entry into its
+     * slot. Must be called while holding the write lock.
+     * @param position the position to remove
+     */
+    private void removeAt(int position) {
+        int last = size - 1;
+        positions.remove(uniqueIds[position]);
+        if (position != last) {
+            System.arraycopy(vectors, last * dimensions, vectors, position * dimensions, dimensions);
+            uniqueIds[position] = uniqueIds[last];
+            references[position] = references[last];
+            contents[position] = contents[last];
+            positions.put(uniqueIds[position], position);
+        }
+
+        uniqueIds[last] = null;
+        references[last] = null;
+        contents[last] = null;
+        size = last;
+    }
+
+    /**
+     * Grows the backing arrays to hold at least the given number of entries. Must
+     * be called while holding the write lock.
+     * @param capacity the required number of entries
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= uniqueIds.length) {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, Math.max(16, uniqueIds.length * 2));
+        vectors = Arrays.copyOf(vectors, newCapacity * dimensions);
+        uniqueIds = Arrays.copyOf(uniqueIds, newCapacity);
+        references = Arrays.copyOf(references, newCapacity);
+        contents = Arrays.copyOf(contents, newCapacity);
+    }
+
+    private record Match(int position, double distance) {
+    }
+
+    private record Result(UUID uniqueId, UUID reference, String content, double distance)
+            implements VectorStoreMatch {
+
+        @Override
+        public UUID getUniqueId() {
+            return uniqueId;
+        }
+
+        @Override
+        public UUID getReference() {
+            return reference;
+        }
+
+        @Override
+        public String getContent() {
+            return content;
+        }
+
+        @Override
+        public double getDistance() {
+            return distance;
+        }
+    }
+}
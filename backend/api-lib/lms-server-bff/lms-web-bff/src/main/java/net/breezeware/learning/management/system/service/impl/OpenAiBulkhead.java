@@ -0,0 +1,240 @@
+package net.breezeware.learning.management.system.service.impl;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiEmbeddingModel;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Flux;
+
+import net.breezeware.learning.management.system.util.AdaptiveConcurrencyLimiter;
+import net.breezeware.learning.management.system.util.ConcurrencyLimitExceededException;
+
+import lombok.extern.slf4j.Slf4j;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Routes all calls to the OpenAI chat and embedding models through separate
+ * {@link AdaptiveConcurrencyLimiter}s, so that a slow provider cannot tie up
+ * more request threads than it can serve. Calls over the limit are queued
+ * briefly and then shed with a {@link ConcurrencyLimitExceededException}.
+ * <p>
+ * The limits of each model are configured under
+ * {@code lms.openai.bulkhead.chat.*} and {@code lms.openai.bulkhead.embedding.*}
+ * and reported as {@code lms.openai.bulkhead.limit}, {@code .in-flight},
+ * {@code .queued} and {@code .rejected}, tagged by model.
+ * <p>
+ * The calls themselves are timed as {@code lms.openai.chat} and
+ * {@code lms.openai.embedding}, tagged by outcome. Token usage reported by the
+ * chat model is counted in {@code lms.openai.chat.tokens} and the inputs of
+ * each embedding request are recorded in {@code lms.openai.embedding.inputs}.
+ */
+@Component
+@Slf4j
+public class OpenAiBulkhead {
+
+    private final OpenAiChatModel openAiChatModel;
+    private final OpenAiEmbeddingModel openAiEmbeddingModel;
+    private final AdaptiveConcurrencyLimiter chatLimiter;
+    private final AdaptiveConcurrencyLimiter embeddingLimiter;
+    private final Counter chatRejections;
+    private final Counter embeddingRejections;
+    private final MeterRegistry meterRegistry;
+    private final Counter promptTokens;
+    private final Counter completionTokens;
+    private final DistributionSummary embeddingInputs;
+
+    public OpenAiBulkhead(OpenAiChatModel openAiChatModel, OpenAiEmbeddingModel openAiEmbeddingModel,
+            Environment environment, MeterRegistry meterRegistry) {
+        this.openAiChatModel = openAiChatModel;
+        this.openAiEmbeddingModel = openAiEmbeddingModel;
+        this.chatLimiter = limiter("chat", environment, meterRegistry);
+        this.embeddingLimiter = limiter("embedding", environment, meterRegistry);
+        this.chatRejections = rejectionCounter("chat", meterRegistry);
+        this.embeddingRejections = rejectionCounter("embedding", meterRegistry);
+        this.meterRegistry = meterRegistry;
+        this.promptTokens = Counter.builder("lms.openai.chat.tokens").tag("type", "prompt")
+                .description("Prompt tokens billed for chat completions").register(meterRegistry);
+        this.completionTokens = Counter.builder("lms.openai.chat.tokens").tag("type", "completion")
+                .description("Completion tokens billed for chat completions").register(meterRegistry);
+        this.embeddingInputs = DistributionSummary.builder("lms.openai.embedding.inputs")
+                .description("Texts sent per embedding request").register(meterRegistry);
+    }
+
+    /**
+     * Calls the chat model.
+     * @param  prompt the prompt
+     * @return        the response
+     */
+    public ChatResponse call(Prompt prompt) {
+        ChatResponse chatResponse =
+                guard(chatLimiter, chatRejections, "lms.openai.chat", "call", () -> openAiChatModel.call(prompt));
+        recordUsage(chatResponse);
+        return chatResponse;
+    }
+
+    /**
+     * Streams the response of the chat model. The permit is taken on
+     * subscription and held until the stream terminates or is cancelled; the
+     * latency fed into the limit is the time to the first chunk.
+     * @param  prompt the prompt
+     * @return        the response chunks
+     */
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.defer(() -> stream(prompt, reserveChat()));
+    }
+
+    /**
+     * Takes a chat permit ahead of a streamed call, so that callers can be shed
+     * before they commit to a response. The permit is passed to
+     * {@link #stream(Prompt, AdaptiveConcurrencyLimiter.Permit)}, or released if
+     * the call is not made.
+     * @return                                   the permit
+     * @throws ConcurrencyLimitExceededException if the chat model is at its limit
+     */
+    public AdaptiveConcurrencyLimiter.Permit reserveChat() {
+        return acquire(chatLimiter, chatRejections);
+    }
+
+    /**
+     * Streams the response of the chat model under a permit taken with
+     * {@link #reserveChat()}. The permit is held until the stream terminates or
+     * is cancelled; the latency fed into the limit is the time from subscription
+     * to the first chunk.
+     * @param  prompt the prompt
+     * @param  permit the reserved permit
+     * @return        the response chunks
+     */
+    public Flux<ChatResponse> stream(Prompt prompt, AdaptiveConcurrencyLimiter.Permit permit) {
+        return Flux.defer(() -> {
+            permit.started();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            // Usage, when reported, arrives with the last chunk
+            AtomicReference<ChatResponse> lastResponse = new AtomicReference<>();
+            return openAiChatModel.stream(prompt).doOnNext(chatResponse -> {
+                permit.responded();
+                lastResponse.set(chatResponse);
+            }).doOnComplete(() -> {
+                permit.success();
+                sample.stop(callTimer("lms.openai.chat", "stream", "success"));
+                recordUsage(lastResponse.get());
+            }).doOnCancel(() -> {
+                permit.success();
+                sample.stop(callTimer("lms.openai.chat", "stream", "cancelled"));
+            }).doOnError(error -> {
+                permit.failure();
+                sample.stop(callTimer("lms.openai.chat", "stream", "error"));
+            });
+        });
+    }
+
+    /**
+     * Embeds one text.
+     * @param  text the text
+     * @return      the embedding
+     */
+    public float[] embed(String text) {
+        embeddingInputs.record(1);
+        return guard(embeddingLimiter, embeddingRejections, "lms.openai.embedding", "call",
+                () -> openAiEmbeddingModel.embed(text));
+    }
+
+    /**
+     * Embeds several texts in one request.
+     * @param  texts the texts
+     * @return       the embeddings, in the order of the texts
+     */
+    public List<float[]> embed(List<String> texts) {
+        embeddingInputs.record(texts.size());
+        return guard(embeddingLimiter, embeddingRejections, "lms.openai.embedding", "call",
+                () -> openAiEmbeddingModel.embed(texts));
+    }
+
+    private <T> T guard(AdaptiveConcurrencyLimiter limiter, Counter rejections, String timerName, String mode,
+            Supplier<T> call) {
+        AdaptiveConcurrencyLimiter.Permit permit = acquire(limiter, rejections);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            T result = call.get();
+            permit.success();
+            sample.stop(callTimer(timerName, mode, "success"));
+            return result;
+        } catch (RuntimeException e) {
+            permit.failure();
+            sample.stop(callTimer(timerName, mode, "error"));
+            throw e;
+        }
+
+    }
+
+    private Timer callTimer(String name, String mode, String outcome) {
+        return Timer.builder(name).tag("mode", mode).tag("outcome", outcome).register(meterRegistry);
+    }
+
+    private void recordUsage(ChatResponse chatResponse) {
+        if (chatResponse == null || chatResponse.getMetadata() == null) {
+            return;
+        }
+
+        Usage usage = chatResponse.getMetadata().getUsage();
+        if (usage == null) {
+            return;
+        }
+
+        if (usage.getPromptTokens() != null) {
+            promptTokens.increment(usage.getPromptTokens());
+        }
+
+        if (usage.getGenerationTokens() != null) {
+            completionTokens.increment(usage.getGenerationTokens());
+        }
+
+    }
+
+    private static AdaptiveConcurrencyLimiter.Permit acquire(AdaptiveConcurrencyLimiter limiter, Counter rejections) {
+        try {
+            return limiter.acquire();
+        } catch (ConcurrencyLimitExceededException e) {
+            rejections.increment();
+            log.warn("Shedding OpenAI call: {}", e.getMessage());
+            throw e;
+        }
+
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(String model, Environment environment,
+            MeterRegistry meterRegistry) {
+        String prefix = "lms.openai.bulkhead." + model + ".";
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("OpenAI " + model + " model",
+                environment.getProperty(prefix + "initial-limit", Integer.class, 20),
+                environment.getProperty(prefix + "min-limit", Integer.class, 2),
+                environment.getProperty(prefix + "max-limit", Integer.class, 100),
+                environment.getProperty(prefix + "latency-tolerance", Double.class, 2.0),
+                environment.getProperty(prefix + "backoff-ratio", Double.class, 0.9),
+                environment.getProperty(prefix + "max-queued", Integer.class, 50),
+                environment.getProperty(prefix + "max-wait-ms", Long.class, 250L));
+        Gauge.builder("lms.openai.bulkhead.limit", limiter, AdaptiveConcurrencyLimiter::limit).tag("model", model)
+                .register(meterRegistry);
+        Gauge.builder("lms.openai.bulkhead.in-flight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .tag("model", model).register(meterRegistry);
+        Gauge.builder("lms.openai.bulkhead.queued", limiter, AdaptiveConcurrencyLimiter::queued).tag("model", model)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    private static Counter rejectionCounter(String model, MeterRegistry meterRegistry) {
+        return Counter.builder("lms.openai.bulkhead.rejected").tag("model", model).register(meterRegistry);
+    }
+}
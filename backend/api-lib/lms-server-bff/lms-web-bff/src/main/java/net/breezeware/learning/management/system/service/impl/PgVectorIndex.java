@@ -0,0 +1,139 @@
+package net.breezeware.learning.management.system.service.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import net.breezeware.learning.management.system.dao.VectorStoreMatch;
+import net.breezeware.learning.management.system.dao.VectorStoreRepository;
+import net.breezeware.learning.management.system.entity.VectorStore;
+import net.breezeware.learning.management.system.service.api.VectorIndex;
+
+import lombok.extern.slf4j.Slf4j;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * {@link VectorIndex} backed by the pgvector HNSW indexes on
+ * {@code lms_svc.vector_store}. The table is the index, so writes need no extra
+ * bookkeeping.
+ * <p>
+ * With {@code lms.vector-index.quantization} set to {@code halfvec} or
+ * {@code binary}, the coarse search runs on the matching quantized index and
+ * the candidates are re-ranked by their full-precision distance. Each search is
+ * timed and its result count recorded per mode, and a sample of searches is
+ * compared with an exact scan to report recall.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "lms.vector-index.backend", havingValue = "pgvector", matchIfMissing = true)
+public class PgVectorIndex implements VectorIndex {
+
+    private static final int MAX_EF_SEARCH = 1000;
+
+    private final VectorStoreRepository vectorStoreRepository;
+    private final String quantization;
+    private final int rerankFactor;
+    private final double recallSampleRate;
+    private final Timer searchTimer;
+    private final DistributionSummary recallSummary;
+    private final DistributionSummary resultsSummary;
+
+    public PgVectorIndex(VectorStoreRepository vectorStoreRepository, MeterRegistry meterRegistry,
+            @Value("${lms.vector-index.quantization:none}") String quantization,
+            @Value("${lms.vector-index.rerank-factor:4}") int rerankFactor,
+            @Value("${lms.vector-index.recall-sample-rate:0.0}") double recallSampleRate) {
+        this.vectorStoreRepository = vectorStoreRepository;
+        this.quantization = quantization.toLowerCase();
+        this.rerankFactor = Math.max(1, rerankFactor);
+        this.recallSampleRate = recallSampleRate;
+        this.searchTimer = Timer.builder("lms.vector-index.search").tag("quantization", this.quantization)
+                .publishPercentiles(0.5, 0.95, 0.99).register(meterRegistry);
+        this.recallSummary = DistributionSummary.builder("lms.vector-index.recall")
+                .tag("quantization", this.quantization).register(meterRegistry);
+        this.resultsSummary = DistributionSummary.builder("lms.vector-index.results")
+                .tag("quantization", this.quantization).register(meterRegistry);
+        if (!Set.of("none", "halfvec", "binary").contains(this.quantization)) {
+            throw new IllegalStateException("Unsupported lms.vector-index.quantization: " + quantization);
+        }
+
+    }
+
+    @Override
+    public List<VectorStoreMatch> search(float[] queryEmbedding, int topK, double maxDistance, int efSearch) {
+        long start = System.nanoTime();
+        List<VectorStoreMatch> matches;
+        if ("none".equals(quantization)) {
+            matches = vectorStoreRepository.findRelevantDocuments(queryEmbedding, maxDistance, topK, efSearch);
+        } else {
+            int candidates = Math.min(MAX_EF_SEARCH, topK * rerankFactor);
+            matches = vectorStoreRepository.findRelevantDocumentsQuantized(queryEmbedding, maxDistance, topK,
+                    candidates, efSearch, quantization);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        searchTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        resultsSummary.record(matches.size());
+
+        if (recallSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < recallSampleRate) {
+            sampleRecall(queryEmbedding, topK, maxDistance, matches, elapsed);
+        }
+
+        return matches;
+    }
+
+    @Override
+    public void add(VectorStore vectorStore) {
+        // Rows are searchable as soon as they are committed.
+    }
+
+    @Override
+    public void remove(Collection<UUID> uniqueIds) {
+        // Rows are removed from the index together with the table rows.
+    }
+
+    @Override
+    public void removeByReference(UUID reference) {
+        // Rows are removed from the index together with the table rows.
+    }
+
+    /**
+     * Compares an approximate result with an exact scan and records its recall.
+     * @param queryEmbedding the query embedding
+     * @param topK           the number of results requested
+     * @param maxDistance    the maximum cosine distance of a result
+     * @param matches        the approximate results
+     * @param elapsedNanos   the latency of the approximate search
+     */
+    private void sampleRecall(float[] queryEmbedding, int topK, double maxDistance, List<VectorStoreMatch> matches,
+            long elapsedNanos) {
+        try {
+            long start = System.nanoTime();
+            List<VectorStoreMatch> exact = vectorStoreRepository.findExactDocuments(queryEmbedding, maxDistance, topK);
+            long exactNanos = System.nanoTime() - start;
+            if (exact.isEmpty()) {
+                return;
+            }
+
+            Set<UUID> found = matches.stream().map(VectorStoreMatch::getUniqueId).collect(Collectors.toSet());
+            long hits = exact.stream().filter(match -> found.contains(match.getUniqueId())).count();
+            double recall = (double) hits / exact.size();
+            recallSummary.record(recall);
+            log.info("Vector search recall@{} with quantization {}: {} ({} ms approximate, {} ms exact)", topK,
+                    quantization, recall, elapsedNanos / 1_000_000, exactNanos / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Failed to sample vector search recall: {}", e.getMessage());
+        }
+
+    }
+}
@@ -0,0 +1,79 @@
+package net.breezeware.learning.management.system.service.impl;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded cache of query embeddings keyed by the embedding model and the
+ * prompt with its whitespace collapsed, so repeated chat prompts skip the
+ * remote embedding call. Case is kept, since it can change the embedding. The
+ * collapsed prompt is also what gets embedded, so every prompt sharing a key
+ * gets the same embedding regardless of which one missed first.
+ * Entries are weighed by their approximate heap footprint and evicted by size
+ * and age. Hit, miss and eviction counts are published under
+ * {@code cache.*{cache=lms.query-embedding}}.
+ */
+@Component
+public class QueryEmbeddingCache {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final Cache<String, float[]> cache;
+    private final String embeddingModel;
+    private final boolean enabled;
+
+    public QueryEmbeddingCache(MeterRegistry meterRegistry,
+            @Value("${lms.chat.query-embedding-cache.enabled:true}") boolean enabled,
+            @Value("${lms.chat.query-embedding-cache.max-bytes:67108864}") long maxBytes,
+            @Value("${lms.chat.query-embedding-cache.ttl:PT6H}") Duration ttl,
+            @Value("${spring.ai.openai.embedding.options.model:text-embedding-ada-002}") String embeddingModel) {
+        this.enabled = enabled;
+        this.embeddingModel = embeddingModel;
+        this.cache = Caffeine.newBuilder().maximumWeight(maxBytes)
+                .weigher((String key, float[] embedding) -> ENTRY_OVERHEAD_BYTES + key.length() * 2
+                        + embedding.length * Float.BYTES)
+                .expireAfterWrite(ttl).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "lms.query-embedding");
+    }
+
+    /**
+     * Returns the cached embedding for the query, computing and caching it on a
+     * miss. The embedder receives the query with its whitespace collapsed, or
+     * the query as given when the cache is disabled. The returned array is
+     * shared between callers and must not be modified.
+     * @param  query    the prompt to embed
+     * @param  embedder the function computing the embedding on a miss
+     * @return          the embedding, or {@code null} if the embedder returned
+     *                  none
+     */
+    public float[] getOrEmbed(String query, Function<String, float[]> embedder) {
+        if (!enabled) {
+            return embedder.apply(query);
+        }
+
+        String normalized = normalize(query);
+        return cache.get(embeddingModel + "|" + normalized, key -> {
+            float[] embedding = embedder.apply(normalized);
+            return embedding == null || embedding.length == 0 ? null : embedding;
+        });
+    }
+
+    /**
+     * Removes leading and trailing whitespace from the prompt and collapses
+     * whitespace runs into single spaces.
+     * @param  query the prompt
+     * @return       the normalized prompt
+     */
+    private static String normalize(String query) {
+        return query.strip().replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,200 @@
+package net.breezeware.learning.management.system.service.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+import net.breezeware.dynamo.utils.exception.DynamoException;
+import net.breezeware.learning.management.system.service.api.ObjectStorageService;
+
+import lombok.extern.slf4j.Slf4j;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * {@link ObjectStorageService} backed by Amazon S3 or any S3-compatible store
+ * such as MinIO, selected with {@code lms.storage.s3.endpoint}.
+ * <p>
+ * Objects up to one part are streamed in a single {@code PutObject}; larger
+ * objects are sent as a multipart upload through one part-sized buffer per
+ * upload. At most {@code lms.storage.upload.max-concurrent} uploads run at
+ * once, so upload memory is bounded by that count times the part size.
+ * <p>
+ * Uploads are timed as {@code lms.storage.upload}, tagged by upload mode and
+ * outcome, and their sizes are recorded in {@code lms.storage.upload.size}.
+ */
+@Service
+@Slf4j
+public class S3ObjectStorageService implements ObjectStorageService {
+
+    /**
+     * Smallest part size S3 accepts for all parts but the last.
+     */
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private final S3Client s3Client;
+    private final String bucketName;
+    private final int partSize;
+    private final Semaphore uploadPermits;
+    private final long acquireTimeoutMillis;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary uploadSize;
+
+    public S3ObjectStorageService(MeterRegistry meterRegistry, @Value("${aws.s3.bucket}") String bucketName,
+            @Value("${aws.region}") String region, @Value("${lms.storage.s3.endpoint:}") String endpoint,
+            @Value("${lms.storage.s3.path-style-access:false}") boolean pathStyleAccess,
+            @Value("${lms.storage.upload.part-size-bytes:8388608}") int partSize,
+            @Value("${lms.storage.upload.max-concurrent:8}") int maxConcurrentUploads,
+            @Value("${lms.storage.upload.acquire-timeout-ms:10000}") long acquireTimeoutMillis) {
+        S3ClientBuilder builder = S3Client.builder().region(Region.of(region))
+                .forcePathStyle(pathStyleAccess);
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+
+        this.s3Client = builder.build();
+        this.bucketName = bucketName;
+        this.partSize = Math.max(MIN_PART_SIZE, partSize);
+        this.uploadPermits = new Semaphore(Math.max(1, maxConcurrentUploads), true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.meterRegistry = meterRegistry;
+        this.uploadSize = DistributionSummary.builder("lms.storage.upload.size").baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void upload(String key, InputStream content, long contentLength, String contentType) {
+        log.info("Entering upload(key={}, contentLength={})", key, contentLength);
+        acquireUploadPermit(key);
+        String mode = contentLength <= partSize ? "single" : "multipart";
+        String outcome = "error";
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            if (contentLength <= partSize) {
+                s3Client.putObject(PutObjectRequest.builder().bucket(bucketName).key(key).contentType(contentType)
+                        .contentLength(contentLength).build(), RequestBody.fromInputStream(content, contentLength));
+            } else {
+                multipartUpload(key, content, contentLength, contentType);
+            }
+
+            outcome = "success";
+            uploadSize.record(contentLength);
+            log.info("Leaving upload()");
+        } catch (DynamoException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error while uploading object '{}': {}", key, e.getMessage(), e);
+            throw new DynamoException("Error while uploading object '%s'".formatted(key),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        } finally {
+            uploadPermits.release();
+            sample.stop(Timer.builder("lms.storage.upload").tag("mode", mode).tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+
+    }
+
+    @Override
+    public void delete(String key) {
+        log.info("Entering delete(key={})", key);
+        s3Client.deleteObject(DeleteObjectRequest.builder().bucket(bucketName).key(key).build());
+        log.info("Leaving delete()");
+    }
+
+    @PreDestroy
+    void close() {
+        s3Client.close();
+    }
+
+    /**
+     * Sends an object as a multipart upload, reusing one part-sized buffer. The
+     * upload is aborted on failure so that no orphaned parts are billed.
+     * @param  key           the object key
+     * @param  content       the object content
+     * @param  contentLength the number of bytes in {@code content}
+     * @param  contentType   the MIME type of the object
+     * @throws IOException if the content cannot be read
+     */
+    private void multipartUpload(String key, InputStream content, long contentLength, String contentType)
+            throws IOException {
+        String uploadId = s3Client.createMultipartUpload(
+                CreateMultipartUploadRequest.builder().bucket(bucketName).key(key).contentType(contentType).build())
+                .uploadId();
+        try {
+            byte[] buffer = new byte[partSize];
+            List<CompletedPart> parts = new ArrayList<>();
+            long remaining = contentLength;
+            int partNumber = 1;
+            while (remaining > 0) {
+                int length = content.readNBytes(buffer, 0, (int) Math.min(partSize, remaining));
+                if (length == 0) {
+                    throw new IOException("Content ended %d bytes early".formatted(remaining));
+                }
+
+                String eTag = s3Client.uploadPart(
+                        UploadPartRequest.builder().bucket(bucketName).key(key).uploadId(uploadId)
+                                .partNumber(partNumber).contentLength((long) length).build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, length), length)).eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+                remaining -= length;
+                partNumber++;
+            }
+
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder().bucket(bucketName).key(key)
+                    .uploadId(uploadId).multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+            log.debug("Uploaded object '{}' in {} parts", key, parts.size());
+        } catch (IOException | RuntimeException e) {
+            s3Client.abortMultipartUpload(
+                    AbortMultipartUploadRequest.builder().bucket(bucketName).key(key).uploadId(uploadId).build());
+            throw e;
+        }
+
+    }
+
+    /**
+     * Waits for a free upload slot, failing fast with 503 when the store is
+     * saturated rather than queueing requests indefinitely.
+     * @param key the object key, for the error message
+     */
+    private void acquireUploadPermit(String key) {
+        try {
+            if (!uploadPermits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new DynamoException("Too many concurrent uploads, retry '%s' later".formatted(key),
+                        HttpStatus.SERVICE_UNAVAILABLE);
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DynamoException("Interrupted while waiting to upload '%s'".formatted(key),
+                    HttpStatus.SERVICE_UNAVAILABLE);
+        }
+
+    }
+}
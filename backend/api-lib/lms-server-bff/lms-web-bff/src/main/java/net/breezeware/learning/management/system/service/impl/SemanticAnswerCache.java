@@ -0,0 +1,141 @@
+package net.breezeware.learning.management.system.service.impl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import net.breezeware.learning.management.system.dao.VectorStoreMatch;
+import net.breezeware.learning.management.system.util.VectorMath;
+
+import lombok.extern.slf4j.Slf4j;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache of chat answers looked up by query similarity. A stored answer is
+ * reused when a new query embedding lies within the configured cosine distance
+ * of a cached query and the retrieval returned exactly the same vector store
+ * entries. Entries are dropped as soon as any of their source references is
+ * re-embedded or deleted.
+ */
+@Component
+@Slf4j
+public class SemanticAnswerCache {
+
+    private final Cache<UUID, Entry> cache;
+    private final AtomicLong generation = new AtomicLong();
+    private final boolean enabled;
+    private final double maxDistance;
+    private final Counter hits;
+    private final Counter misses;
+
+    public SemanticAnswerCache(MeterRegistry meterRegistry,
+            @Value("${lms.chat.answer-cache.enabled:true}") boolean enabled,
+            @Value("${lms.chat.answer-cache.max-entries:1000}") long maxEntries,
+            @Value("${lms.chat.answer-cache.ttl:PT24H}") Duration ttl,
+            @Value("${lms.chat.answer-cache.max-distance:0.05}") double maxDistance) {
+        this.enabled = enabled;
+        this.maxDistance = maxDistance;
+        this.cache = Caffeine.newBuilder().maximumSize(maxEntries).expireAfterWrite(ttl).build();
+        this.hits = meterRegistry.counter("lms.chat.answer-cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("lms.chat.answer-cache.requests", "result", "miss");
+        meterRegistry.gauge("lms.chat.answer-cache.size", cache, Cache::estimatedSize);
+    }
+
+    /**
+     * Finds the answer of the closest cached query that retrieved the same
+     * documents.
+     * @param  queryEmbedding the embedding of the new query
+     * @param  documents      the documents retrieved for the new query
+     * @return                the cached answer, if any
+     */
+    public Optional<String> find(float[] queryEmbedding, List<VectorStoreMatch> documents) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        float[] query = VectorMath.normalize(queryEmbedding);
+        Set<UUID> documentIds = documentIds(documents);
+
+        Entry closest = null;
+        double closestDistance = maxDistance;
+        for (Entry entry : cache.asMap().values()) {
+            if (entry.queryEmbedding().length != query.length || !entry.documentIds().equals(documentIds)) {
+                continue;
+            }
+
+            double distance = 1 - VectorMath.dot(entry.queryEmbedding(), 0, query);
+            if (distance <= closestDistance) {
+                closest = entry;
+                closestDistance = distance;
+            }
+
+        }
+
+        if (closest == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        hits.increment();
+        return Optional.of(closest.answer());
+    }
+
+    /**
+     * Returns the current invalidation generation. Callers capture it before
+     * generating an answer and pass it to {@link #put} so that answers built from
+     * documents invalidated in the meantime are not stored.
+     * @return the invalidation generation
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Stores an answer for the given query and retrieved documents.
+     * @param queryEmbedding  the embedding of the query
+     * @param documents       the documents the answer was generated from
+     * @param answer          the generated answer
+     * @param startGeneration the generation captured before the answer was
+     *                        generated
+     */
+    public void put(float[] queryEmbedding, List<VectorStoreMatch> documents, String answer, long startGeneration) {
+        if (!enabled || generation.get() != startGeneration) {
+            return;
+        }
+
+        Set<UUID> references = documents.stream().map(VectorStoreMatch::getReference).collect(Collectors.toSet());
+        Entry entry = new Entry(UUID.randomUUID(), VectorMath.normalize(queryEmbedding), documentIds(documents),
+                references, answer);
+        cache.put(entry.id(), entry);
+    }
+
+    /**
+     * Removes every cached answer built from documents of the given reference.
+     * @param reference the re-embedded or deleted reference
+     */
+    public void invalidateReference(UUID reference) {
+        generation.incrementAndGet();
+        cache.asMap().values().removeIf(entry -> entry.references().contains(reference));
+        log.debug("Invalidated cached chat answers for reference {}", reference);
+    }
+
+    private Set<UUID> documentIds(List<VectorStoreMatch> documents) {
+        return documents.stream().map(VectorStoreMatch::getUniqueId).collect(Collectors.toSet());
+    }
+
+    private record Entry(UUID id, float[] queryEmbedding, Set<UUID> documentIds, Set<UUID> references,
+            String answer) {
+    }
+}
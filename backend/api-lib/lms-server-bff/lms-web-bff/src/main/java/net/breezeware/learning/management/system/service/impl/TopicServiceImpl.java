@@ -1,23 +1,32 @@
 package net.breezeware.learning.management.system.service.impl;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
 
 import net.breezeware.dynamo.generics.crud.service.GenericService;
 import net.breezeware.dynamo.utils.exception.DynamoException;
 import net.breezeware.learning.management.system.dao.CourseRepository;
+import net.breezeware.learning.management.system.dao.EntityVersion;
 import net.breezeware.learning.management.system.dao.TopicRepository;
-import net.breezeware.learning.management.system.dao.VectorStoreRepository;
-import net.breezeware.learning.management.system.dto.EmbeddingDto;
+import net.breezeware.learning.management.system.dto.ResourceVersionDto;
 import net.breezeware.learning.management.system.dto.TopicDto;
 import net.breezeware.learning.management.system.entity.Course;
 import net.breezeware.learning.management.system.entity.Topic;
 import net.breezeware.learning.management.system.mapper.TopicMapper;
-import net.breezeware.learning.management.system.service.api.EmbeddingService;
+import net.breezeware.learning.management.system.service.api.EmbeddingJobService;
 import net.breezeware.learning.management.system.service.api.TopicService;
+import net.breezeware.learning.management.system.util.CsvParser;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -35,17 +44,18 @@ public class TopicServiceImpl extends GenericService<Topic> implements TopicServ
     private final TopicRepository topicRepository;
     private final CourseRepository courseRepository;
     private final TopicMapper topicMapper;
-    private final VectorStoreRepository vectorStoreRepository;
-    private final EmbeddingService embeddingService;
+    private final EmbeddingJobService embeddingJobService;
+
+    @Value("${lms.topics.import.max-topics:500}")
+    int maxTopicsPerImport;
 
     public TopicServiceImpl(TopicRepository topicRepository, CourseRepository courseRepository, TopicMapper topicMapper,
-            VectorStoreRepository vectorStoreRepository, EmbeddingService embeddingService) {
+            EmbeddingJobService embeddingJobService) {
         super(topicRepository);
         this.topicRepository = topicRepository;
         this.courseRepository = courseRepository;
         this.topicMapper = topicMapper;
-        this.vectorStoreRepository = vectorStoreRepository;
-        this.embeddingService = embeddingService;
+        this.embeddingJobService = embeddingJobService;
     }
 
     /**
@@ -78,6 +88,114 @@ public class TopicServiceImpl extends GenericService<Topic> implements TopicServ
 
     }
 
+    /**
+     * Creates several topics of one course in a single transaction. All topics are
+     * validated before any is written, and the course's embeddings are refreshed
+     * once for the whole batch instead of once per topic.
+     * @param  courseId  the ID of the course the topics belong to
+     * @param  topicDtos the topics to create
+     * @return           the created topics, in request order
+     */
+    @Transactional
+    @Override
+    public List<TopicDto> createTopics(long courseId, List<TopicDto> topicDtos) {
+        log.info("Entering createTopics(courseId={}, topics={})", courseId, topicDtos == null ? 0 : topicDtos.size());
+        if (topicDtos == null || topicDtos.isEmpty()) {
+            throw new DynamoException("At least one topic is required", HttpStatus.BAD_REQUEST);
+        }
+
+        if (topicDtos.size() > maxTopicsPerImport) {
+            throw new DynamoException("At most %d topics can be created per request".formatted(maxTopicsPerImport),
+                    HttpStatus.BAD_REQUEST);
+        }
+
+        validateTopics(topicDtos);
+
+        try {
+            Course course = courseRepository.findById(courseId).orElseThrow(
+                    () -> new DynamoException("Course not found with ID: " + courseId, HttpStatus.NOT_FOUND));
+
+            List<Topic> topics = new ArrayList<>(topicDtos.size());
+            for (TopicDto topicDto : topicDtos) {
+                Topic topic = topicMapper.topicDtoToTopic(topicDto);
+                topic.setCourse(course);
+                topics.add(create(topic));
+            }
+
+            refreshCourseEmbeddings(course);
+
+            List<TopicDto> createdTopics = topics.stream().map(topicMapper::topicToTopicDto).toList();
+            log.info("Leaving createTopics()");
+            return createdTopics;
+        } catch (DynamoException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error while creating topics for course {}: {}", courseId, e.getMessage(), e);
+            throw new DynamoException("Failed to create topics: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+
+    }
+
+    /**
+     * Creates the topics of one course from a CSV file. The header row names the
+     * {@code name}, {@code description} and {@code duration} columns in any order;
+     * other columns are ignored.
+     * @param  courseId the ID of the course the topics belong to
+     * @param  file     the CSV file
+     * @return          the created topics, in file order
+     */
+    @Transactional
+    @Override
+    public List<TopicDto> importTopics(long courseId, MultipartFile file) {
+        log.info("Entering importTopics(courseId={})", courseId);
+        if (file == null || file.isEmpty()) {
+            throw new DynamoException("CSV file is required", HttpStatus.BAD_REQUEST);
+        }
+
+        List<List<String>> records;
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            // One extra record for the header
+            records = CsvParser.parse(reader, maxTopicsPerImport + 1);
+        } catch (IllegalArgumentException e) {
+            throw new DynamoException("Invalid CSV file: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (IOException e) {
+            throw new DynamoException("Failed to read CSV file: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+
+        if (records.isEmpty()) {
+            throw new DynamoException("CSV file has no header row", HttpStatus.BAD_REQUEST);
+        }
+
+        List<String> header = records.get(0).stream().map(column -> column.trim().toLowerCase()).toList();
+        int nameColumn = requireColumn(header, "name");
+        int descriptionColumn = requireColumn(header, "description");
+        int durationColumn = requireColumn(header, "duration");
+
+        List<TopicDto> topicDtos = new ArrayList<>(records.size() - 1);
+        for (int row = 1; row < records.size(); row++) {
+            List<String> record = records.get(row);
+            if (record.size() != header.size()) {
+                throw new DynamoException("CSV row %d has %d columns, expected %d".formatted(row, record.size(),
+                        header.size()), HttpStatus.BAD_REQUEST);
+            }
+
+            String duration = record.get(durationColumn).trim();
+            try {
+                topicDtos.add(TopicDto.builder().name(record.get(nameColumn).trim())
+                        .description(record.get(descriptionColumn).trim()).duration(Long.parseLong(duration))
+                        .courseId(courseId).build());
+            } catch (NumberFormatException e) {
+                throw new DynamoException("CSV row %d has an invalid duration: %s".formatted(row, duration),
+                        HttpStatus.BAD_REQUEST);
+            }
+
+        }
+
+        List<TopicDto> createdTopics = createTopics(courseId, topicDtos);
+        log.info("Leaving importTopics()");
+        return createdTopics;
+    }
+
     /**
      * Updates an existing topic and refreshes embeddings.
      * @param  topicId  the ID of the topic to update
@@ -97,6 +215,8 @@ public class TopicServiceImpl extends GenericService<Topic> implements TopicServ
             existingTopic.setDuration(topicDto.getDuration());
 
             Topic updatedTopic = update(existingTopic);
+            // Flushed here, so that a concurrent update fails below rather than at commit
+            topicRepository.flush();
 
             Course course = courseRepository.findById(topicDto.getCourseId())
                     .orElseThrow(() -> new DynamoException("Course not found with ID: " + topicDto.getCourseId(),
@@ -106,6 +226,10 @@ public class TopicServiceImpl extends GenericService<Topic> implements TopicServ
 
             log.info("Leaving updateTopic()");
             return updatedTopic;
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Topic with ID {} was updated concurrently: {}", topicId, e.getMessage());
+            throw new DynamoException("Topic was modified by another request, reload it and retry",
+                    HttpStatus.CONFLICT);
         } catch (Exception e) {
             log.error("Error while updating topic: {}", e.getMessage(), e);
             throw new DynamoException("Failed to update topic: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -146,7 +270,7 @@ public class TopicServiceImpl extends GenericService<Topic> implements TopicServ
     public TopicDto getTopicById(long topicId) {
         log.info("Entering getTopicById()");
         try {
-            Topic topic = topicRepository.findById(topicId).orElseThrow(
+            Topic topic = topicRepository.findWithCourseById(topicId).orElseThrow(
                     () -> new DynamoException("Topic not found with ID: " + topicId, HttpStatus.NOT_FOUND));
 
             TopicDto topicDto = topicMapper.topicToTopicDto(topic);
@@ -159,6 +283,39 @@ public class TopicServiceImpl extends GenericService<Topic> implements TopicServ
 
     }
 
+    /**
+     * Retrieves the HTTP validators of a topic from its version column, without
+     * loading the topic.
+     * @param  topicId the ID of the topic
+     * @return         the entity tag and last modification time of the topic
+     */
+    @Override
+    public ResourceVersionDto getTopicVersion(long topicId) {
+        log.info("Entering getTopicVersion()");
+        EntityVersion version = topicRepository.findVersionById(topicId).orElseThrow(
+                () -> new DynamoException("Topic not found with ID: " + topicId, HttpStatus.NOT_FOUND));
+        log.info("Leaving getTopicVersion()");
+        return ResourceVersionDto.builder().etag("topic-%d-v%s".formatted(topicId, version.getTag()))
+                .lastModified(version.getModifiedOnEpochMillis() == null ? -1 : version.getModifiedOnEpochMillis())
+                .build();
+    }
+
+    /**
+     * Retrieves the HTTP entity tag of the topic list of a course from a digest of
+     * the topic IDs and versions. No modification time is returned, since removing
+     * a topic does not advance it.
+     * @param  courseId the ID of the course
+     * @return          the entity tag of the course's topic list
+     */
+    @Override
+    public ResourceVersionDto getTopicsVersion(long courseId) {
+        log.info("Entering getTopicsVersion()");
+        EntityVersion version = topicRepository.findListVersionByCourseId(courseId);
+        log.info("Leaving getTopicsVersion()");
+        return ResourceVersionDto.builder().etag("topics-%d-%s".formatted(courseId, version.getTag()))
+                .lastModified(-1).build();
+    }
+
     /**
      * Retrieves all topics for a given course.
      * @param  courseId the ID of the course
@@ -174,22 +331,61 @@ public class TopicServiceImpl extends GenericService<Topic> implements TopicServ
     }
 
     /**
-     * Rebuilds the embedding for a course based on all its topics.
-     * @param course the course whose embeddings should be refreshed
+     * Checks the topics against the constraints of {@link Topic} so that a bulk
+     * request is rejected as a whole, with every offending row reported.
+     * @param topicDtos the topics to check
      */
-    private void refreshCourseEmbeddings(Course course) {
-        log.info("Entering refreshCourseEmbeddings()");
-        vectorStoreRepository.deleteByReference(course.getUniqueId());
+    private void validateTopics(List<TopicDto> topicDtos) {
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < topicDtos.size(); i++) {
+            TopicDto topicDto = topicDtos.get(i);
+            int row = i + 1;
+            if (topicDto == null) {
+                errors.add("topic %d is missing".formatted(row));
+                continue;
+            }
+
+            if (topicDto.getName() == null || topicDto.getName().isBlank()) {
+                errors.add("topic %d: name cannot be blank".formatted(row));
+            } else if (topicDto.getName().length() > 255) {
+                errors.add("topic %d: name must be at most 255 characters".formatted(row));
+            }
+
+            if (topicDto.getDescription() == null || topicDto.getDescription().isBlank()) {
+                errors.add("topic %d: description cannot be blank".formatted(row));
+            }
+
+            if (topicDto.getDuration() <= 0) {
+                errors.add("topic %d: duration must be greater than zero".formatted(row));
+            }
+
+        }
 
-        List<Topic> topics = topicRepository.findByCourseId(course.getId());
+        if (!errors.isEmpty()) {
+            throw new DynamoException("Invalid topics: " + String.join("; ", errors), HttpStatus.BAD_REQUEST);
+        }
 
-        String topicsString = topics.stream().map(topic -> topic.getName() + ": " + topic.getDescription())
-                .collect(Collectors.joining(" "));
+    }
 
-        EmbeddingDto embeddingDto = new EmbeddingDto(
-                course.getName() + " " + course.getDescription() + " " + topicsString, course.getUniqueId());
+    private static int requireColumn(List<String> header, String column) {
+        int index = header.indexOf(column);
+        if (index < 0) {
+            throw new DynamoException("CSV header is missing the '%s' column".formatted(column),
+                    HttpStatus.BAD_REQUEST);
+        }
 
-        embeddingService.documentEmbedding(embeddingDto);
+        return index;
+    }
+
+    /**
+     * Queues the refresh of a course's embeddings. The job is written in the same
+     * transaction as the topic change and picked up by {@link EmbeddingJobWorker}
+     * once committed.
+     * @param course the course whose embeddings should be refreshed
+     */
+    private void refreshCourseEmbeddings(Course course) {
+        log.info("Entering refreshCourseEmbeddings()");
+        embeddingJobService.enqueueCourseRefresh(course.getId());
         log.info("Leaving refreshCourseEmbeddings()");
     }
 }
@@ -0,0 +1,333 @@
+package net.breezeware.learning.management.system.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit that adapts to the latency of the guarded calls (additive
+ * increase, multiplicative decrease).
+ * <p>
+ * Latencies are tracked as two moving averages: a short one over roughly the
+ * last {@value #SHORT_WINDOW} calls and a long one over roughly the last
+ * {@value #LONG_WINDOW}, which serves as the baseline. Single calls are never
+ * compared with the baseline, because the latency of a chat completion varies
+ * with the length of its output. When the short average exceeds
+ * {@code tolerance} times the long one, or a call fails, the limit shrinks by
+ * {@code backoffRatio}; at most once per round of calls, so a burst of slow
+ * responses counts as a single signal. Otherwise the limit grows by about one
+ * per round, as long as it is actually being used. The baseline drifts slowly
+ * towards lasting changes in latency and drops faster once the service
+ * recovers from a slowdown.
+ * <p>
+ * Callers over the limit wait up to {@code maxWaitMillis} in a queue of at
+ * most {@code maxQueued}; everyone else is rejected immediately with a
+ * {@link ConcurrencyLimitExceededException}.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 500;
+    private static final double SHORT_SMOOTHING = 2.0 / (SHORT_WINDOW + 1);
+    private static final double LONG_SMOOTHING = 2.0 / (LONG_WINDOW + 1);
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitAvailable = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private long samples;
+    private double shortLatencyNanos;
+    private double longLatencyNanos;
+    private long lastDecreaseNanos;
+
+    /**
+     * Creates a limiter.
+     * @param name          the name used in rejection messages
+     * @param initialLimit  the limit to start with
+     * @param minLimit      the lowest limit
+     * @param maxLimit      the highest limit
+     * @param tolerance     how many times the long-term average latency the
+     *                      recent average may reach before the limit shrinks
+     * @param backoffRatio  the factor applied to the limit when it shrinks
+     * @param maxQueued     the maximum number of callers waiting for a permit
+     * @param maxWaitMillis the longest a caller waits for a permit
+     */
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, double tolerance,
+            double backoffRatio, int maxQueued, long maxWaitMillis) {
+        this(name, initialLimit, minLimit, maxLimit, tolerance, backoffRatio, maxQueued, maxWaitMillis,
+                System::nanoTime);
+    }
+
+    /**
+     * Creates a limiter that measures latencies with the given clock, so tests
+     * can control them. Waiting for a permit always uses real time.
+     * @param name          the name used in rejection messages
+     * @param initialLimit  the limit to start with
+     * @param minLimit      the lowest limit
+     * @param maxLimit      the highest limit
+     * @param tolerance     how many times the long-term average latency the
+     *                      recent average may reach before the limit shrinks
+     * @param backoffRatio  the factor applied to the limit when it shrinks
+     * @param maxQueued     the maximum number of callers waiting for a permit
+     * @param maxWaitMillis the longest a caller waits for a permit
+     * @param nanoClock     the clock latencies are measured with, in nanoseconds
+     */
+    AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, double tolerance,
+            double backoffRatio, int maxQueued, long maxWaitMillis, LongSupplier nanoClock) {
+        if (minLimit < 1 || maxLimit < minLimit || tolerance <= 1 || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Invalid concurrency limit settings for " + name);
+        }
+
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.maxQueued = Math.max(0, maxQueued);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMillis));
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.nanoClock = nanoClock;
+        this.lastDecreaseNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes a permit, waiting briefly in the queue if the limit is reached. The
+     * permit must be completed exactly once.
+     * @return the permit
+     * @throws ConcurrencyLimitExceededException if no permit became available in
+     *                                           time or the queue is full
+     */
+    public Permit acquire() {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return new Permit(nanoClock.getAsLong());
+            }
+
+            if (queued >= maxQueued || maxWaitNanos == 0) {
+                throw rejection();
+            }
+
+            queued++;
+            try {
+                long remainingNanos = maxWaitNanos;
+                while (inFlight >= (int) limit) {
+                    if (remainingNanos <= 0) {
+                        throw rejection();
+                    }
+
+                    remainingNanos = permitAvailable.awaitNanos(remainingNanos);
+                }
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw rejection();
+            } finally {
+                queued--;
+            }
+
+            inFlight++;
+            return new Permit(nanoClock.getAsLong());
+        } finally {
+            lock.unlock();
+        }
+
+    }
+
+    /**
+     * Returns the current limit.
+     * @return the number of calls allowed to run at once
+     */
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+
+    }
+
+    /**
+     * Returns the number of calls currently holding a permit.
+     * @return the calls in flight
+     */
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+
+    }
+
+    /**
+     * Returns the number of callers waiting for a permit.
+     * @return the queued callers
+     */
+    public int queued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+
+    }
+
+    /**
+     * Feeds the latency of a successful call into both averages. Until the long
+     * window has filled, the baseline is the plain mean of all calls. Must be
+     * called while holding the lock.
+     * @param latencyNanos the latency of the call
+     */
+    private void recordLatency(long latencyNanos) {
+        samples++;
+        if (samples == 1) {
+            shortLatencyNanos = latencyNanos;
+            longLatencyNanos = latencyNanos;
+            return;
+        }
+
+        shortLatencyNanos += SHORT_SMOOTHING * (latencyNanos - shortLatencyNanos);
+        longLatencyNanos += Math.max(LONG_SMOOTHING, 1.0 / samples) * (latencyNanos - longLatencyNanos);
+        if (longLatencyNanos > 2 * shortLatencyNanos) {
+            // The service has recovered from a slowdown that raised the baseline
+            longLatencyNanos *= 0.95;
+        }
+
+    }
+
+    private ConcurrencyLimitExceededException rejection() {
+        // Suggest retrying once the calls ahead have had time to finish
+        long retryAfterSeconds = Math.max(1, ((long) longLatencyNanos + TimeUnit.SECONDS.toNanos(1) - 1)
+                / TimeUnit.SECONDS.toNanos(1));
+        return new ConcurrencyLimitExceededException(
+                "%s is at its concurrency limit of %d".formatted(name, (int) limit), retryAfterSeconds);
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            permitAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+    }
+
+    private void complete(long startNanos, long endNanos, boolean failed) {
+        long now = nanoClock.getAsLong();
+        long latencyNanos = endNanos - startNanos;
+        lock.lock();
+        try {
+            inFlight--;
+            if (!failed) {
+                recordLatency(latencyNanos);
+            }
+
+            boolean slow = samples >= SHORT_WINDOW && shortLatencyNanos > longLatencyNanos * tolerance;
+            if (failed || slow) {
+                // Calls started before the last decrease already reflect it
+                if (startNanos > lastDecreaseNanos) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecreaseNanos = now;
+                }
+
+            } else if (inFlight + 1 >= limit / 2) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+
+            permitAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+    }
+
+    /**
+     * Permission to run one call. Completing it releases the permit and feeds the
+     * latency of the call into the limit. For streamed calls the latency is taken
+     * up to {@link #responded()}, while the permit is held until the stream ends.
+     * A permit taken ahead of its call is released with {@link #release()} if the
+     * call never happens.
+     */
+    public final class Permit {
+
+        private volatile long startNanos;
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private volatile long respondedNanos;
+
+        private Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Marks the start of the call, for a permit taken before the call could be
+         * made, so the time in between does not count towards its latency.
+         */
+        public void started() {
+            startNanos = nanoClock.getAsLong();
+        }
+
+        /**
+         * Marks the arrival of the first part of the response; later calls have no
+         * effect.
+         */
+        public void responded() {
+            if (respondedNanos == 0) {
+                respondedNanos = nanoClock.getAsLong();
+            }
+
+        }
+
+        /**
+         * Releases the permit after a successful call.
+         */
+        public void success() {
+            complete(false);
+        }
+
+        /**
+         * Releases the permit after a failed call, which shrinks the limit.
+         */
+        public void failure() {
+            complete(true);
+        }
+
+        /**
+         * Releases the permit without affecting the limit, for a call that was not
+         * made. Has no effect once the permit has been completed.
+         */
+        public void release() {
+            if (completed.compareAndSet(false, true)) {
+                AdaptiveConcurrencyLimiter.this.release();
+            }
+
+        }
+
+        private void complete(boolean failed) {
+            if (completed.compareAndSet(false, true)) {
+                long endNanos = respondedNanos != 0 ? respondedNanos : nanoClock.getAsLong();
+                AdaptiveConcurrencyLimiter.this.complete(startNanos, endNanos, failed);
+            }
+
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package net.breezeware.learning.management.system.util;
+
+/**
+ * Thrown when a call is shed because its {@link AdaptiveConcurrencyLimiter} is
+ * saturated. Rendered as {@code 429 Too Many Requests} with a
+ * {@code Retry-After} header.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ConcurrencyLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Returns how long the client should wait before retrying.
+     * @return the delay in seconds
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,113 @@
+package net.breezeware.learning.management.system.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader. Fields are separated by commas and records by CRLF
+ * or LF; a field enclosed in double quotes may contain commas, line breaks and
+ * doubled quotes. Blank records are skipped.
+ */
+public final class CsvParser {
+
+    private CsvParser() {
+    }
+
+    /**
+     * Reads all records from the given reader.
+     * @param  reader     the CSV content
+     * @param  maxRecords the maximum number of records to accept
+     * @return            the records, each as a list of fields
+     * @throws IOException              if the content cannot be read
+     * @throws IllegalArgumentException if the content is malformed or has more
+     *                                  than {@code maxRecords} records
+     */
+    public static List<List<String>> parse(Reader reader, int maxRecords) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean afterQuote = false;
+        int line = 1;
+
+        int c = reader.read();
+        if (c == '\uFEFF') {
+            // Byte order mark written by spreadsheet exports
+            c = reader.read();
+        }
+
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        afterQuote = true;
+                        c = next;
+                        continue;
+                    }
+
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+
+                    field.append((char) c);
+                }
+
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                afterQuote = false;
+            } else if (c == '\r' || c == '\n') {
+                endRecord(records, fields, field, maxRecords);
+                afterQuote = false;
+                line++;
+                if (c == '\r') {
+                    c = reader.read();
+                    if (c != '\n') {
+                        continue;
+                    }
+
+                }
+
+            } else if (afterQuote) {
+                throw new IllegalArgumentException("Unexpected character after closing quote on line " + line);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+
+            c = reader.read();
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field on line " + line);
+        }
+
+        endRecord(records, fields, field, maxRecords);
+        return records;
+    }
+
+    private static void endRecord(List<List<String>> records, List<String> fields, StringBuilder field,
+            int maxRecords) {
+        fields.add(field.toString());
+        field.setLength(0);
+        List<String> record = List.copyOf(fields);
+        fields.clear();
+        if (record.size() == 1 && record.get(0).isEmpty()) {
+            return;
+        }
+
+        if (records.size() == maxRecords) {
+            throw new IllegalArgumentException("CSV content has more than " + maxRecords + " records");
+        }
+
+        records.add(record);
+    }
+}
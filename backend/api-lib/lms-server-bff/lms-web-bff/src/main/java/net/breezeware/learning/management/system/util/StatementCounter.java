@@ -0,0 +1,42 @@
+package net.breezeware.learning.management.system.util;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate {@link StatementInspector} that counts the SQL statements prepared
+ * on the current thread, so a request can be checked against its query budget.
+ * Statements are passed through unchanged.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Resets the statement count of the current thread.
+     */
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    /**
+     * Returns the number of statements prepared on the current thread since the
+     * last {@link #reset()}.
+     * @return the statement count
+     */
+    public static int count() {
+        return COUNT.get()[0];
+    }
+
+    /**
+     * Releases the counter of the current thread.
+     */
+    public static void clear() {
+        COUNT.remove();
+    }
+}
@@ -0,0 +1,72 @@
+package net.breezeware.learning.management.system.util;
+
+/**
+ * Primitive vector operations used for in-process similarity scoring. All
+ * methods operate on raw {@code float[]} arrays to avoid boxing.
+ */
+public final class VectorMath {
+
+    private VectorMath() {
+    }
+
+    /**
+     * Returns a unit-length copy of the given vector. A zero vector is returned
+     * unchanged.
+     * @param  vector the vector to normalize
+     * @return        a new normalized vector
+     */
+    public static float[] normalize(float[] vector) {
+        float[] normalized = new float[vector.length];
+        double norm = Math.sqrt(dot(vector, 0, vector));
+        if (norm == 0) {
+            return normalized;
+        }
+
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = (float) (vector[i] / norm);
+        }
+
+        return normalized;
+    }
+
+    /**
+     * Computes the dot product of {@code query} with the vector stored in
+     * {@code data} starting at {@code offset}.
+     * @param  data   the backing array holding one or more vectors
+     * @param  offset the start of the vector within {@code data}
+     * @param  query  the query vector
+     * @return        the dot product
+     */
+    public static double dot(float[] data, int offset, float[] query) {
+        double sum = 0;
+        for (int i = 0; i < query.length; i++) {
+            sum += data[offset + i] * query[i];
+        }
+
+        return sum;
+    }
+
+    /**
+     * Computes the cosine distance ({@code 1 - cosine similarity}) between two
+     * vectors, matching pgvector's {@code <=>} operator.
+     * @param  a the first vector
+     * @param  b the second vector
+     * @return   the cosine distance
+     */
+    public static double cosineDistance(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+
+        if (normA == 0 || normB == 0) {
+            return 1;
+        }
+
+        return 1 - dot / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+}
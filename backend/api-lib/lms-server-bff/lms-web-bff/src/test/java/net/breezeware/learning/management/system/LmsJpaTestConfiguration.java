@@ -0,0 +1,16 @@
+package net.breezeware.learning.management.system;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Configuration found by {@code @DataJpaTest} slices in this module. Maps the
+ * same entities as the application, so the user entities referenced by
+ * courses resolve, but only creates the repositories of this application.
+ */
+@SpringBootConfiguration
+@EnableJpaRepositories(basePackages = { "net.breezeware.learning.management.system" })
+@EntityScan(basePackages = { "net.breezeware.learning.management.system", "net.breezeware.dynamo" })
+public class LmsJpaTestConfiguration {
+}
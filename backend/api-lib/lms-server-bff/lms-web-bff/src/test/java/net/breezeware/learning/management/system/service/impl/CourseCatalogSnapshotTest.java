@@ -0,0 +1,63 @@
+package net.breezeware.learning.management.system.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the catalog snapshot picks up courses changed by other instances
+ * from its high-water mark, and reads nothing more while the catalog is
+ * unchanged.
+ */
+class CourseCatalogSnapshotTest extends StatementCountTestSupport {
+
+    @BeforeEach
+    void lookBackOneMinute() {
+        courseCatalogSnapshot.changeOverlapMillis = 60_000;
+    }
+
+    @Test
+    void refreshChangedOnlyLooksUpChangesWhenNothingChanged() {
+        addCourses(3, createUser());
+        courseCatalogSnapshot.rebuild();
+
+        // The courses just added fall within the overlap but match the snapshot
+        assertThat(countStatements(courseCatalogSnapshot::refreshChanged)).isEqualTo(1);
+    }
+
+    @Test
+    void refreshChangedPicksUpCoursesAndEnrollmentsAddedElsewhere() {
+        UUID learner = createUser();
+        addCourses(1, learner);
+        courseCatalogSnapshot.rebuild();
+
+        long courseId = createCourse(createUser(), "added-elsewhere");
+        enroll(courseId, learner);
+        courseCatalogSnapshot.refreshChanged();
+
+        assertThat(page()).contains("added-elsewhere").contains("\"learnersEnrolled\":1");
+        assertThat(countStatements(courseCatalogSnapshot::refreshChanged)).isEqualTo(1);
+    }
+
+    @Test
+    void refreshCourseKeepsTheNextCheckFromReloadingIt() {
+        UUID learner = createUser();
+        addCourses(1, learner);
+        courseCatalogSnapshot.rebuild();
+
+        long courseId = createCourse(createUser(), "added-here");
+        courseCatalogSnapshot.refreshCourse(courseId);
+
+        assertThat(page()).contains("added-here");
+        assertThat(countStatements(courseCatalogSnapshot::refreshChanged)).isEqualTo(1);
+    }
+
+    private String page() {
+        return new String(courseCatalogSnapshot.page(null, 100, null, null, null).getContent(),
+                StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,73 @@
+package net.breezeware.learning.management.system.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import net.breezeware.learning.management.system.dto.CourseDto;
+import net.breezeware.learning.management.system.dto.CourseQueryDto;
+
+/**
+ * Guards the aggregated catalog queries against N+1 regressions: listing one
+ * course and listing many must prepare the same number of statements.
+ */
+class CourseCatalogStatementCountTest extends StatementCountTestSupport {
+
+    private static final int MANY_COURSES = 25;
+
+    @Test
+    void getAllCoursesIssuesTheSameStatementsForOneAndManyCourses() {
+        UUID learner = createUser();
+        addCourses(1, learner);
+        long oneCourse = countStatements(this::rebuildAndListCatalog);
+
+        addCourses(MANY_COURSES - 1, learner);
+        long manyCourses = countStatements(this::rebuildAndListCatalog);
+
+        assertThat(manyCourses).as("statements for %d courses", MANY_COURSES).isEqualTo(oneCourse);
+    }
+
+    @Test
+    void getAllCoursesForLearnersIssuesTheSameStatementsForOneAndManyCourses() {
+        UUID learner = createUser();
+        addCourses(1, learner);
+        long oneCourse = countStatements(() -> courseService.getAllCoursesForLearners(learner, new CourseQueryDto()));
+
+        addCourses(MANY_COURSES - 1, learner);
+        long manyCourses =
+                countStatements(() -> courseService.getAllCoursesForLearners(learner, new CourseQueryDto()));
+
+        assertThat(manyCourses).as("statements for %d courses", MANY_COURSES).isEqualTo(oneCourse);
+    }
+
+    @Test
+    void getAllCoursesForLearnersAppliesEachSuppliedFilterInOneStatement() {
+        UUID learner = createUser();
+        UUID author = createUser();
+        long algebra = createCourse(author, "Algebra");
+        createCourse(author, "Biology");
+        createCourse(createUser(), "Astronomy");
+        enroll(algebra, learner);
+
+        CourseQueryDto query = CourseQueryDto.builder().authorId(author).namePrefix("al").status("published").build();
+        List<CourseDto> courses = new ArrayList<>();
+        long statements = countStatements(
+                () -> courses.addAll(courseService.getAllCoursesForLearners(learner, query).getCourses()));
+
+        assertThat(statements).isEqualTo(1);
+        assertThat(courses).extracting(CourseDto::getId).containsExactly(algebra);
+        assertThat(courses.get(0).isEnrolled()).isTrue();
+        assertThat(courseService.getAllCoursesForLearners(learner, CourseQueryDto.builder().after(algebra).build())
+                .getCourses()).extracting(CourseDto::getName).containsExactly("Biology", "Astronomy");
+    }
+
+    private void rebuildAndListCatalog() {
+        // The snapshot is only read from the database when it is rebuilt
+        courseCatalogSnapshot.rebuild();
+        courseService.getAllCourses(new CourseQueryDto());
+    }
+}
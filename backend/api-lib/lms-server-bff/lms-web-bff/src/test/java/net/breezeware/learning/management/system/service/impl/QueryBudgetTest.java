@@ -0,0 +1,84 @@
+package net.breezeware.learning.management.system.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import net.breezeware.learning.management.system.dao.TopicRepository;
+import net.breezeware.learning.management.system.dto.CourseQueryDto;
+import net.breezeware.learning.management.system.mapper.TopicMapperImpl;
+import net.breezeware.learning.management.system.service.api.EmbeddingJobService;
+
+/**
+ * Fails when a list endpoint prepares more statements than
+ * {@code lms.query-budget.max-statements}, the budget the application only
+ * logs at runtime. Endpoints that resolve a user are charged one extra
+ * statement for the lookup, which goes through the mocked user service here.
+ */
+class QueryBudgetTest extends StatementCountTestSupport {
+
+    private static final int COURSES = 25;
+    private static final int USER_LOOKUP_STATEMENTS = 1;
+
+    @Value("${lms.query-budget.max-statements}")
+    int maxStatements;
+
+    @Autowired
+    TopicRepository topicRepository;
+
+    private TopicServiceImpl topicService;
+    private UUID learner;
+
+    @BeforeEach
+    void addCatalog() {
+        topicService = new TopicServiceImpl(topicRepository, courseRepository, new TopicMapperImpl(),
+                mock(EmbeddingJobService.class));
+        learner = createUser();
+        addCourses(COURSES, learner);
+    }
+
+    @Test
+    void getAllCoursesStaysWithinBudget() {
+        long statements = countStatements(() -> {
+            courseCatalogSnapshot.rebuild();
+            courseService.getAllCourses(new CourseQueryDto());
+        });
+
+        assertThat(statements).as("statements of GET /api/courses").isLessThanOrEqualTo(maxStatements);
+    }
+
+    @Test
+    void getAllCoursesForLearnersStaysWithinBudget() {
+        long statements = countStatements(() -> courseService.getAllCoursesForLearners(learner, new CourseQueryDto()));
+
+        assertThat(statements + USER_LOOKUP_STATEMENTS).as("statements of GET /api/courses/all-course/{id}")
+                .isLessThanOrEqualTo(maxStatements);
+    }
+
+    @Test
+    void learnersEnrolledCoursesStaysWithinBudget() {
+        long statements = countStatements(() -> courseService.learnersEnrolledCourses(learner));
+
+        assertThat(statements + USER_LOOKUP_STATEMENTS).as("statements of GET /api/courses/{id}/enrolled")
+                .isLessThanOrEqualTo(maxStatements);
+    }
+
+    @Test
+    void getTopicsByCourseIdStaysWithinBudget() {
+        long courseId = createCourse(createUser(), "course-with-topics");
+        for (int i = 0; i < COURSES; i++) {
+            createTopic(courseId, "topic-" + i);
+        }
+
+        long statements = countStatements(() -> topicService.getTopicsByCourseId(courseId));
+
+        assertThat(statements).as("statements of GET /api/courses/course/{id}").isLessThanOrEqualTo(maxStatements);
+    }
+}
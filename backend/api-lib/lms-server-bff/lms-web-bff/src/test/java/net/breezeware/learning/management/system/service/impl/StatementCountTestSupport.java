@@ -0,0 +1,183 @@
+package net.breezeware.learning.management.system.service.impl;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.breezeware.dynamo.usermanagement.entity.User;
+import net.breezeware.dynamo.usermanagement.service.UserService;
+import net.breezeware.learning.management.system.dao.CourseRepository;
+import net.breezeware.learning.management.system.dao.UserCourseMapRepository;
+import net.breezeware.learning.management.system.mapper.CourseMapper;
+import net.breezeware.learning.management.system.mapper.CourseMapperImpl;
+import net.breezeware.learning.management.system.service.api.EmbeddingJobService;
+import net.breezeware.learning.management.system.service.api.EmbeddingService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Runs the course services against PostgreSQL, migrated with the
+ * application's Flyway scripts, and counts the JDBC statements they prepare
+ * with Hibernate statistics. Tests are not wrapped in a transaction, so that
+ * the read transactions of the services see the fixtures; fixtures are deleted
+ * after each test.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers
+abstract class StatementCountTestSupport {
+
+    static final String CDN_URL = "https://cdn.example.com/";
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>(
+            DockerImageName.parse("pgvector/pgvector:pg16").asCompatibleSubstituteFor("postgres"));
+
+    @Autowired
+    CourseRepository courseRepository;
+
+    @Autowired
+    UserCourseMapRepository userCourseMapRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    UserService userService;
+    CourseCatalogSnapshot courseCatalogSnapshot;
+    CourseServiceImpl courseService;
+
+    @BeforeEach
+    void createServices() {
+        CourseMapper courseMapper = new CourseMapperImpl();
+        userService = mock(UserService.class);
+        courseCatalogSnapshot =
+                new CourseCatalogSnapshot(courseRepository, courseMapper, new ObjectMapper().findAndRegisterModules(),
+                        transactionManager);
+        courseCatalogSnapshot.documentCdnUrl = CDN_URL;
+        courseService = new CourseServiceImpl(courseRepository, mock(EmbeddingService.class), userService,
+                courseMapper, userCourseMapRepository, mock(EmbeddingJobService.class), courseCatalogSnapshot,
+                mock(CoursePhotoUploader.class), transactionManager);
+        courseService.documentCdnUrl = CDN_URL;
+        courseService.defaultPageLimit = 50;
+        courseService.maxPageLimit = 200;
+    }
+
+    @AfterEach
+    void deleteFixtures() {
+        jdbcTemplate.update("DELETE FROM lms_svc.user_course_map");
+        jdbcTemplate.update("DELETE FROM lms_svc.topic");
+        jdbcTemplate.update("DELETE FROM lms_svc.course");
+        jdbcTemplate.update("DELETE FROM dynamo.\"user\"");
+    }
+
+    /**
+     * Runs an action and returns the number of JDBC statements it prepared.
+     * @param  action the action
+     * @return        the statement count
+     */
+    long countStatements(Runnable action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Inserts a user and lets the mocked {@link UserService} resolve it.
+     * @return the unique ID of the user
+     */
+    UUID createUser() {
+        UUID userId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO dynamo.\"user\" (unique_id, idm_user_id, idm_info, email, status, "
+                + "created_on, modified_on) VALUES (?, ?, 1, ?, 'active', now(), now())", userId, userId.toString(),
+                userId + "@example.com");
+        User user = mock(User.class);
+        when(user.getUniqueId()).thenReturn(userId);
+        when(userService.retrieveUser(userId)).thenReturn(Optional.of(user));
+        return userId;
+    }
+
+    /**
+     * Inserts a published course.
+     * @param  authorId the unique ID of the author
+     * @param  name     the course name
+     * @return          the ID of the course
+     */
+    long createCourse(UUID authorId, String name) {
+        return jdbcTemplate.queryForObject("INSERT INTO lms_svc.course (name, unique_id, description, photo_key, "
+                + "author_id, status, created_on, modified_on) VALUES (?, ?, ?, ?, ?, 'published', now(), now()) "
+                + "RETURNING id", Long.class, name, UUID.randomUUID(), "About " + name, "courses/" + name + ".png",
+                authorId);
+    }
+
+    /**
+     * Inserts a topic of a course.
+     * @param courseId the ID of the course
+     * @param name     the topic name
+     */
+    void createTopic(long courseId, String name) {
+        jdbcTemplate.update("INSERT INTO lms_svc.topic (course_id, name, description, duration, created_on, "
+                + "modified_on) VALUES (?, ?, ?, 30, now(), now())", courseId, name, "About " + name);
+    }
+
+    /**
+     * Enrolls a user in a course.
+     * @param courseId the ID of the course
+     * @param userId   the unique ID of the user
+     */
+    void enroll(long courseId, UUID userId) {
+        jdbcTemplate.update("INSERT INTO lms_svc.user_course_map (course_id, user_id, status, created_on, "
+                + "modified_on) VALUES (?, ?, 'enrolled', now(), now())", courseId, userId);
+    }
+
+    /**
+     * Adds courses by distinct authors, each with topics and enrollments of
+     * distinct learners, so that any per-row lazy loading shows up as extra
+     * statements.
+     * @param count   the number of courses to add
+     * @param learner the learner enrolled in every other course
+     */
+    void addCourses(int count, UUID learner) {
+        for (int i = 0; i < count; i++) {
+            long courseId = createCourse(createUser(), "course-" + UUID.randomUUID());
+            createTopic(courseId, "Introduction");
+            createTopic(courseId, "Advanced");
+            enroll(courseId, createUser());
+            if (i % 2 == 0) {
+                enroll(courseId, learner);
+            }
+
+        }
+
+    }
+}
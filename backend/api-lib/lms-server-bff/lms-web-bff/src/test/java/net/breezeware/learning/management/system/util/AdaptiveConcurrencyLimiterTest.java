@@ -0,0 +1,159 @@
+package net.breezeware.learning.management.system.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests of {@link AdaptiveConcurrencyLimiter}. Latencies are measured with
+ * a manual clock, so every decision of the limiter is deterministic; only the
+ * waiting tests use real time.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long CALL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(1));
+
+    @Test
+    void rejectsImmediatelyWhenTheQueueIsFull() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 10_000);
+        AdaptiveConcurrencyLimiter.Permit held = limiter.acquire();
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> waiting = CompletableFuture.supplyAsync(limiter::acquire);
+        awaitQueued(limiter, 1);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(limiter::acquire).isInstanceOf(ConcurrencyLimitExceededException.class);
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(1));
+
+        held.success();
+        waiting.get(5, TimeUnit.SECONDS).success();
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void rejectsAfterWaitingMaxWaitMillis() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 5, 100);
+        limiter.acquire();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(limiter::acquire).isInstanceOf(ConcurrencyLimitExceededException.class)
+                .satisfies(e -> assertThat(((ConcurrencyLimitExceededException) e).getRetryAfterSeconds())
+                        .isPositive());
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(limiter.queued()).isZero();
+        assertThat(limiter.inFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void decreasesAtMostOncePerRoundOfCalls() {
+        AdaptiveConcurrencyLimiter limiter = limiter(16, 0, 0);
+        clock.addAndGet(1);
+        List<AdaptiveConcurrencyLimiter.Permit> round = acquire(limiter, 16);
+        clock.addAndGet(CALL_NANOS);
+
+        round.forEach(AdaptiveConcurrencyLimiter.Permit::failure);
+        assertThat(limiter.limit()).isEqualTo(8);
+
+        // A call started after the decrease reflects it and may shrink the limit again
+        clock.addAndGet(1);
+        AdaptiveConcurrencyLimiter.Permit next = limiter.acquire();
+        clock.addAndGet(CALL_NANOS);
+        next.failure();
+        assertThat(limiter.limit()).isEqualTo(4);
+    }
+
+    @Test
+    void growsOnlyWhileTheLimitIsInUse() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 0, 0);
+        for (int i = 0; i < 50; i++) {
+            call(limiter);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(10);
+
+        // With five calls held, each completing call leaves over half of the limit in use
+        List<AdaptiveConcurrencyLimiter.Permit> held = acquire(limiter, 5);
+        for (int i = 0; i < 20; i++) {
+            call(limiter);
+        }
+
+        assertThat(limiter.limit()).isGreaterThan(10);
+        held.forEach(AdaptiveConcurrencyLimiter.Permit::success);
+    }
+
+    @Test
+    void releaseLeavesTheLimitUnchanged() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 0, 0);
+        List<AdaptiveConcurrencyLimiter.Permit> held = acquire(limiter, 5);
+        for (int i = 0; i < 20; i++) {
+            clock.addAndGet(1);
+            AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+            clock.addAndGet(CALL_NANOS);
+            permit.release();
+        }
+
+        assertThat(limiter.limit()).isEqualTo(10);
+        assertThat(limiter.inFlight()).isEqualTo(5);
+        held.forEach(AdaptiveConcurrencyLimiter.Permit::release);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void completingAPermitMoreThanOnceHasNoEffect() {
+        AdaptiveConcurrencyLimiter limiter = limiter(10, 0, 0);
+        clock.addAndGet(1);
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+        AdaptiveConcurrencyLimiter.Permit other = limiter.acquire();
+        clock.addAndGet(CALL_NANOS);
+
+        permit.success();
+        permit.success();
+        permit.failure();
+        permit.release();
+        assertThat(limiter.inFlight()).isEqualTo(1);
+        assertThat(limiter.limit()).isEqualTo(10);
+
+        other.failure();
+        other.failure();
+        other.success();
+        assertThat(limiter.inFlight()).isZero();
+        assertThat(limiter.limit()).isEqualTo(5);
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit, int maxQueued, long maxWaitMillis) {
+        return new AdaptiveConcurrencyLimiter("test", initialLimit, 1, 100, 2.0, 0.5, maxQueued, maxWaitMillis,
+                clock::get);
+    }
+
+    private static List<AdaptiveConcurrencyLimiter.Permit> acquire(AdaptiveConcurrencyLimiter limiter, int count) {
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            permits.add(limiter.acquire());
+        }
+
+        return permits;
+    }
+
+    private void call(AdaptiveConcurrencyLimiter limiter) {
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+        clock.addAndGet(CALL_NANOS);
+        permit.success();
+    }
+
+    private static void awaitQueued(AdaptiveConcurrencyLimiter limiter, int queued) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.queued() < queued) {
+            assertThat(System.nanoTime()).as("caller queued in time").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+
+    }
+}
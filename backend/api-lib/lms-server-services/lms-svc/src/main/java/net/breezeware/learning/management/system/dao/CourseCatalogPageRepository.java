@@ -0,0 +1,28 @@
+package net.breezeware.learning.management.system.dao;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Catalog page queries whose filters are chosen at runtime.
+ */
+public interface CourseCatalogPageRepository {
+
+    /**
+     * Finds one page of non-deleted courses after the given ID, together with
+     * their enrollment counts and whether the given learner is enrolled, in a
+     * single query. Only the filters that are supplied appear in the statement,
+     * so each combination gets its own plan that can use the matching index.
+     * @param  userId     the unique ID of the learner
+     * @param  after      the ID of the last course of the previous page, or
+     *                    {@code null} for the first page
+     * @param  status     the status to match, or {@code null}
+     * @param  authorId   the unique ID of the author to match, or {@code null}
+     * @param  namePrefix the lower-case {@code LIKE} pattern the course name
+     *                    must match, or {@code null}
+     * @param  maxResults the maximum number of courses to return
+     * @return            the course summaries ordered by ID
+     */
+    List<LearnerCourseSummary> findCatalogPageForLearner(UUID userId, Long after, String status, UUID authorId,
+            String namePrefix, int maxResults);
+}
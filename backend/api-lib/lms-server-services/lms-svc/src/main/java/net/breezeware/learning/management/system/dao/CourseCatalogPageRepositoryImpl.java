@@ -0,0 +1,99 @@
+package net.breezeware.learning.management.system.dao;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import net.breezeware.learning.management.system.entity.Course;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * JPQL implementation of {@link CourseCatalogPageRepository}. The
+ * {@code WHERE} clause is assembled from the supplied filters only, instead of
+ * {@code (:param IS NULL OR ...)} predicates that Postgres can only answer with
+ * a generic plan once the statement is prepared.
+ */
+public class CourseCatalogPageRepositoryImpl implements CourseCatalogPageRepository {
+
+    private static final String SELECT_JPQL = "SELECT c, COUNT(ucm.id), "
+            + "COALESCE(SUM(CASE WHEN u.uniqueId = :userId THEN 1 ELSE 0 END), 0) "
+            + "FROM Course c JOIN FETCH c.author a LEFT JOIN UserCourseMap ucm ON ucm.course = c "
+            + "LEFT JOIN ucm.user u WHERE (c.status IS NULL OR LOWER(c.status) <> 'deleted')";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<LearnerCourseSummary> findCatalogPageForLearner(UUID userId, Long after, String status,
+            UUID authorId, String namePrefix, int maxResults) {
+        StringBuilder jpql = new StringBuilder(SELECT_JPQL);
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("userId", userId);
+        if (after != null) {
+            jpql.append(" AND c.id > :after");
+            parameters.put("after", after);
+        }
+
+        if (status != null) {
+            jpql.append(" AND c.status = :status");
+            parameters.put("status", status);
+        }
+
+        if (authorId != null) {
+            jpql.append(" AND a.uniqueId = :authorId");
+            parameters.put("authorId", authorId);
+        }
+
+        if (namePrefix != null) {
+            jpql.append(" AND LOWER(c.name) LIKE :namePrefix ESCAPE '\\'");
+            parameters.put("namePrefix", namePrefix);
+        }
+
+        jpql.append(" GROUP BY c, a ORDER BY c.id");
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql.toString(), Object[].class);
+        parameters.forEach(query::setParameter);
+        query.setMaxResults(maxResults);
+
+        List<LearnerCourseSummary> summaries = new ArrayList<>();
+        for (Object[] row : query.getResultList()) {
+            summaries.add(new Summary((Course) row[0], ((Number) row[1]).longValue(),
+                    ((Number) row[2]).longValue()));
+        }
+
+        return summaries;
+    }
+
+    private static final class Summary implements LearnerCourseSummary {
+
+        private final Course course;
+        private final long learnersEnrolled;
+        private final long learnerEnrollments;
+
+        private Summary(Course course, long learnersEnrolled, long learnerEnrollments) {
+            this.course = course;
+            this.learnersEnrolled = learnersEnrolled;
+            this.learnerEnrollments = learnerEnrollments;
+        }
+
+        @Override
+        public Course getCourse() {
+            return course;
+        }
+
+        @Override
+        public long getLearnersEnrolled() {
+            return learnersEnrolled;
+        }
+
+        @Override
+        public long getLearnerEnrollments() {
+            return learnerEnrollments;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package net.breezeware.learning.management.system.dao;
+
+/**
+ * Projection of the catalog-relevant state of a course that changed recently:
+ * its version, status and number of enrolled learners. Compared against the
+ * catalog snapshot to tell which of its entries are out of date.
+ */
+public interface CourseChange {
+
+    long getId();
+
+    long getVersion();
+
+    String getStatus();
+
+    long getLearnersEnrolled();
+}
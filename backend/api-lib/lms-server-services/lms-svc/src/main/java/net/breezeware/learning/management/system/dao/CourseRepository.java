@@ -1,10 +1,88 @@
 package net.breezeware.learning.management.system.dao;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import net.breezeware.dynamo.generics.crud.dao.GenericRepository;
 import net.breezeware.learning.management.system.entity.Course;
 
 @Repository
-public interface CourseRepository extends GenericRepository<Course> {
+public interface CourseRepository extends GenericRepository<Course>, CourseCatalogPageRepository {
+
+    /**
+     * Finds a course together with its author in a single statement.
+     * @param  id the ID of the course
+     * @return    the course, if it exists
+     */
+    @EntityGraph(Course.WITH_AUTHOR)
+    Optional<Course> findWithAuthorById(long id);
+
+    /**
+     * Finds all courses that are not deleted together with their enrollment
+     * counts. Authors are fetched in the same statement, so the whole catalog is
+     * read with a single query regardless of the number of courses or
+     * enrollments.
+     * @return the course summaries ordered by ID
+     */
+    @Query("SELECT c AS course, COUNT(ucm.id) AS learnersEnrolled FROM Course c JOIN FETCH c.author a "
+            + "LEFT JOIN UserCourseMap ucm ON ucm.course = c "
+            + "WHERE c.status IS NULL OR LOWER(c.status) <> 'deleted' GROUP BY c, a ORDER BY c.id")
+    List<CourseSummary> findCatalog();
+
+    /**
+     * Finds the courses the given learner is enrolled in that are not deleted,
+     * together with their enrollment counts, in a single query.
+     * @param  userId the unique ID of the learner
+     * @return        the course summaries ordered by ID
+     */
+    @Query("SELECT c AS course, COUNT(ucm.id) AS learnersEnrolled FROM Course c JOIN FETCH c.author a "
+            + "LEFT JOIN UserCourseMap ucm ON ucm.course = c "
+            + "WHERE (c.status IS NULL OR LOWER(c.status) <> 'deleted') AND EXISTS (SELECT 1 FROM UserCourseMap mine "
+            + "WHERE mine.course = c AND mine.user.uniqueId = :userId) GROUP BY c, a ORDER BY c.id")
+    List<CourseSummary> findEnrolledCatalog(@Param("userId") UUID userId);
+
+    /**
+     * Finds the courses that are not deleted among the given ones, together with
+     * their enrollment counts, in a single query.
+     * @param  courseIds the IDs of the courses
+     * @return           the course summaries ordered by ID
+     */
+    @Query("SELECT c AS course, COUNT(ucm.id) AS learnersEnrolled FROM Course c JOIN FETCH c.author a "
+            + "LEFT JOIN UserCourseMap ucm ON ucm.course = c "
+            + "WHERE c.id IN :courseIds AND (c.status IS NULL OR LOWER(c.status) <> 'deleted') "
+            + "GROUP BY c, a ORDER BY c.id")
+    List<CourseSummary> findCatalogEntries(@Param("courseIds") Collection<Long> courseIds);
+
+    /**
+     * Finds the courses modified, or given new enrollments, after the given time,
+     * with their version, status and enrollment count. Both conditions are
+     * answered from the modification and enrollment time indexes, so the query
+     * reads nothing but the index when the catalog has not changed.
+     * @param  since the time to look for changes after
+     * @return       the changed courses, including deleted ones
+     */
+    @Query(value = "SELECT c.id AS \"id\", c.version AS \"version\", c.status AS \"status\", "
+            + "(SELECT COUNT(*) FROM lms_svc.user_course_map ucm WHERE ucm.course_id = c.id) "
+            + "AS \"learnersEnrolled\" "
+            + "FROM lms_svc.course c WHERE c.modified_on > :since OR c.id IN (SELECT ucm.course_id "
+            + "FROM lms_svc.user_course_map ucm WHERE ucm.created_on > :since)", nativeQuery = true)
+    List<CourseChange> findCatalogChangesSince(@Param("since") Instant since);
+
+    /**
+     * Reads the version of a course without loading it.
+     * @param  courseId the ID of the course
+     * @return          the version, if the course exists
+     */
+    @Query(value = "SELECT CAST(version AS VARCHAR) AS \"tag\", "
+            + "CAST(EXTRACT(EPOCH FROM modified_on) * 1000 AS BIGINT) AS \"modifiedOnEpochMillis\" "
+            + "FROM lms_svc.course WHERE id = :courseId", nativeQuery = true)
+    Optional<EntityVersion> findVersionById(@Param("courseId") long courseId);
 }
@@ -0,0 +1,14 @@
+package net.breezeware.learning.management.system.dao;
+
+import net.breezeware.learning.management.system.entity.Course;
+
+/**
+ * Projection of a course together with its number of enrolled learners, so
+ * catalog listings are served without loading enrollments.
+ */
+public interface CourseSummary {
+
+    Course getCourse();
+
+    long getLearnersEnrolled();
+}
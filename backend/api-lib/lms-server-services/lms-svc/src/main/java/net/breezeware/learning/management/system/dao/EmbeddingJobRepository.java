@@ -0,0 +1,139 @@
+package net.breezeware.learning.management.system.dao;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import net.breezeware.dynamo.generics.crud.dao.GenericRepository;
+import net.breezeware.learning.management.system.entity.EmbeddingJob;
+
+/**
+ * Repository for the embedding job outbox. Status transitions use native
+ * statements so that they are atomic and timestamped by the database.
+ */
+@Repository
+public interface EmbeddingJobRepository extends GenericRepository<EmbeddingJob> {
+
+    /**
+     * Enqueues a refresh for a course unless one is already pending. A course
+     * waiting for a retry is made due immediately instead, since it has new
+     * content to embed. Must be called inside the transaction that changes the
+     * course.
+     * @param  courseId the ID of the course to refresh
+     * @return          the number of jobs inserted or made due, zero if one was
+     *                  pending
+     */
+    @Modifying
+    @Query(value = "INSERT INTO lms_svc.embedding_job AS job (course_id, status, attempts, next_attempt_on, "
+            + "created_on, modified_on) VALUES (:courseId, 'pending', 0, now(), now(), now()) "
+            + "ON CONFLICT (course_id) WHERE status IN ('pending', 'retrying') "
+            + "DO UPDATE SET status = 'pending', next_attempt_on = now(), modified_on = now() "
+            + "WHERE job.status = 'retrying'", nativeQuery = true)
+    int enqueue(@Param("courseId") long courseId);
+
+    /**
+     * Locks the next due jobs, skipping rows locked by other workers. Jobs stuck
+     * in processing for longer than the lease are reclaimed. Queued jobs of a
+     * course that is still being processed within its lease are left for later,
+     * so one course is never refreshed twice at once.
+     * @param  batchSize    the maximum number of jobs to claim
+     * @param  leaseSeconds the time after which a processing job is reclaimed
+     * @return              the claimed jobs
+     */
+    @Query(value = "SELECT * FROM lms_svc.embedding_job job "
+            + "WHERE (job.status IN ('pending', 'retrying') AND job.next_attempt_on <= now() "
+            + "AND NOT EXISTS (SELECT 1 FROM lms_svc.embedding_job running WHERE running.course_id = job.course_id "
+            + "AND running.status = 'processing' "
+            + "AND running.modified_on >= now() - make_interval(secs => :leaseSeconds))) "
+            + "OR (job.status = 'processing' AND job.modified_on < now() - make_interval(secs => :leaseSeconds)) "
+            + "ORDER BY job.id LIMIT :batchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmbeddingJob> findClaimableJobs(@Param("batchSize") int batchSize, @Param("leaseSeconds") long leaseSeconds);
+
+    /**
+     * Takes a transaction-scoped advisory lock on a course without waiting. Two
+     * workers whose claims overlap on a course cannot both hold it, and the
+     * lock is held until the claim commits.
+     * @param  courseId the ID of the course
+     * @return          whether the lock was taken
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:courseId)", nativeQuery = true)
+    boolean tryLockCourse(@Param("courseId") long courseId);
+
+    /**
+     * Counts the jobs of a course that another worker is processing within its
+     * lease.
+     * @param  courseId     the ID of the course
+     * @param  leaseSeconds the time after which a processing job is reclaimed
+     * @param  claimedIds   the IDs of the jobs claimed by the caller
+     * @return              the number of jobs in flight elsewhere
+     */
+    @Query(value = "SELECT COUNT(*) FROM lms_svc.embedding_job WHERE course_id = :courseId "
+            + "AND status = 'processing' AND modified_on >= now() - make_interval(secs => :leaseSeconds) "
+            + "AND id NOT IN (:claimedIds)", nativeQuery = true)
+    long countInFlight(@Param("courseId") long courseId, @Param("leaseSeconds") long leaseSeconds,
+            @Param("claimedIds") Collection<Long> claimedIds);
+
+    /**
+     * Marks claimed jobs as processing and counts the attempt.
+     * @param ids the IDs of the claimed jobs
+     */
+    @Modifying
+    @Query(value = "UPDATE lms_svc.embedding_job SET status = 'processing', attempts = attempts + 1, "
+            + "modified_on = now() WHERE id IN (:ids)", nativeQuery = true)
+    void markProcessing(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Marks jobs as completed.
+     * @param ids the IDs of the completed jobs
+     */
+    @Modifying
+    @Query(value = "UPDATE lms_svc.embedding_job SET status = 'completed', last_error = NULL, modified_on = now() "
+            + "WHERE id IN (:ids)", nativeQuery = true)
+    void markCompleted(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Marks jobs as superseded by a newer job of the same course that is still
+     * queued or was refreshed together with them.
+     * @param ids the IDs of the superseded jobs
+     */
+    @Modifying
+    @Query(value = "UPDATE lms_svc.embedding_job SET status = 'superseded', modified_on = now() "
+            + "WHERE id IN (:ids)", nativeQuery = true)
+    void markSuperseded(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes up to {@code limit} completed or superseded jobs last modified
+     * before the retention period.
+     * @param  retentionHours the number of hours finished jobs are kept
+     * @param  limit          the maximum number of jobs to delete
+     * @return                the number of jobs deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM lms_svc.embedding_job WHERE id IN (SELECT id FROM lms_svc.embedding_job "
+            + "WHERE status IN ('completed', 'superseded') "
+            + "AND modified_on < now() - make_interval(hours => :retentionHours) LIMIT :limit)", nativeQuery = true)
+    int deleteFinishedBefore(@Param("retentionHours") int retentionHours, @Param("limit") int limit);
+
+    /**
+     * Records a failed attempt, scheduling a retry or moving the jobs to the dead
+     * state. A job that would retry while a newer job of its course is already
+     * queued is marked superseded instead.
+     * @param ids          the IDs of the failed jobs
+     * @param status       {@code retrying} or {@code dead}
+     * @param error        the error message
+     * @param delaySeconds the delay before the next attempt
+     */
+    @Modifying
+    @Query(value = "UPDATE lms_svc.embedding_job job SET status = CASE WHEN :status = 'retrying' AND EXISTS "
+            + "(SELECT 1 FROM lms_svc.embedding_job queued WHERE queued.course_id = job.course_id "
+            + "AND queued.status IN ('pending', 'retrying') AND queued.id <> job.id) THEN 'superseded' "
+            + "ELSE :status END, last_error = :error, "
+            + "next_attempt_on = now() + make_interval(secs => :delaySeconds), modified_on = now() "
+            + "WHERE id IN (:ids)", nativeQuery = true)
+    void markFailed(@Param("ids") Collection<Long> ids, @Param("status") String status, @Param("error") String error,
+            @Param("delaySeconds") long delaySeconds);
+}
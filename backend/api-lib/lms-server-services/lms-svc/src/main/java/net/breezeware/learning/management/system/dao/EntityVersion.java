@@ -0,0 +1,22 @@
+package net.breezeware.learning.management.system.dao;
+
+/**
+ * Projection of the version of a single entity or of a set of entities, read
+ * without loading the entities themselves. Used to answer HTTP conditional
+ * requests.
+ */
+public interface EntityVersion {
+
+    /**
+     * Returns a value that changes whenever the entity, or any entity of the set,
+     * is created, updated or deleted.
+     * @return the version tag
+     */
+    String getTag();
+
+    /**
+     * Returns the last modification time in epoch milliseconds.
+     * @return the modification time, or {@code null} if unknown
+     */
+    Long getModifiedOnEpochMillis();
+}
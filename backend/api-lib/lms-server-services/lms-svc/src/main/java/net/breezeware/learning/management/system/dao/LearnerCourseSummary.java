@@ -0,0 +1,14 @@
+package net.breezeware.learning.management.system.dao;
+
+/**
+ * Projection of a course summary as seen by one learner, carrying whether the
+ * learner is enrolled in the course.
+ */
+public interface LearnerCourseSummary extends CourseSummary {
+
+    /**
+     * Returns the number of enrollments of the learner in the course.
+     * @return the learner's enrollment count, zero if not enrolled
+     */
+    long getLearnerEnrollments();
+}
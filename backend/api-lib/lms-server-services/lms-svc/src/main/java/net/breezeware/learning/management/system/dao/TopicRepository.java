@@ -1,7 +1,11 @@
 package net.breezeware.learning.management.system.dao;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import net.breezeware.dynamo.generics.crud.dao.GenericRepository;
@@ -10,5 +14,41 @@ import net.breezeware.learning.management.system.entity.Topic;
 @Repository
 public interface TopicRepository extends GenericRepository<Topic> {
 
+    /**
+     * Finds the topics of a course together with the course in a single
+     * statement.
+     * @param  courseId the ID of the course
+     * @return          the topics of the course
+     */
+    @EntityGraph(Topic.WITH_COURSE)
     List<Topic> findByCourseId(long courseId);
-}
\ No newline at end of file
+
+    /**
+     * Finds a topic together with its course in a single statement.
+     * @param  id the ID of the topic
+     * @return    the topic, if it exists
+     */
+    @EntityGraph(Topic.WITH_COURSE)
+    Optional<Topic> findWithCourseById(long id);
+
+    /**
+     * Reads the version of a topic without loading it.
+     * @param  topicId the ID of the topic
+     * @return         the version, if the topic exists
+     */
+    @Query(value = "SELECT CAST(version AS VARCHAR) AS \"tag\", "
+            + "CAST(EXTRACT(EPOCH FROM modified_on) * 1000 AS BIGINT) AS \"modifiedOnEpochMillis\" "
+            + "FROM lms_svc.topic WHERE id = :topicId", nativeQuery = true)
+    Optional<EntityVersion> findVersionById(@Param("topicId") long topicId);
+
+    /**
+     * Reads a digest of the IDs and versions of the topics of a course without
+     * loading them. The digest changes when a topic is added, updated or removed.
+     * @param  courseId the ID of the course
+     * @return          the version of the course's topic list
+     */
+    @Query(value = "SELECT md5(COALESCE(string_agg(id || ':' || version, ',' ORDER BY id), '')) AS \"tag\", "
+            + "CAST(EXTRACT(EPOCH FROM MAX(modified_on)) * 1000 AS BIGINT) AS \"modifiedOnEpochMillis\" "
+            + "FROM lms_svc.topic WHERE course_id = :courseId", nativeQuery = true)
+    EntityVersion findListVersionByCourseId(@Param("courseId") long courseId);
+}
@@ -0,0 +1,24 @@
+package net.breezeware.learning.management.system.dao;
+
+import java.util.List;
+import java.util.UUID;
+
+import net.breezeware.learning.management.system.entity.UserCourseMap;
+
+/**
+ * Bulk write operations for {@link UserCourseMap} entries that bypass the
+ * persistence context.
+ */
+public interface UserCourseMapBatchRepository {
+
+    /**
+     * Enrolls the given users in a course with JDBC batch statements. Users who
+     * are already enrolled are skipped by the unique constraint on
+     * {@code (course_id, user_id)}.
+     * @param  courseId the ID of the course
+     * @param  userIds  the unique IDs of the users, without duplicates
+     * @param  status   the enrollment status to store
+     * @return          for each user, in order, whether an enrollment was created
+     */
+    boolean[] batchInsertIgnoringExisting(long courseId, List<UUID> userIds, String status);
+}
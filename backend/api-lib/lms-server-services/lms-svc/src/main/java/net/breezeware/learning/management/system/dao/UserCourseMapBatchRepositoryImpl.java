@@ -0,0 +1,59 @@
+package net.breezeware.learning.management.system.dao;
+
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * JDBC implementation of {@link UserCourseMapBatchRepository}. One
+ * {@code INSERT ... ON CONFLICT DO NOTHING} statement is prepared and executed
+ * in batches of {@code lms.enrollments.jdbc-batch-size} rows; the per-row update
+ * count tells whether the enrollment was created.
+ */
+public class UserCourseMapBatchRepositoryImpl implements UserCourseMapBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO lms_svc.user_course_map "
+            + "(course_id, user_id, status, created_on, modified_on) VALUES (?, ?, ?, now(), now()) "
+            + "ON CONFLICT (course_id, user_id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${lms.enrollments.jdbc-batch-size:500}")
+    int jdbcBatchSize;
+
+    public UserCourseMapBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean[] batchInsertIgnoringExisting(long courseId, List<UUID> userIds, String status) {
+        boolean[] inserted = new boolean[userIds.size()];
+        if (userIds.isEmpty()) {
+            return inserted;
+        }
+
+        int[][] updateCounts = jdbcTemplate.batchUpdate(INSERT_SQL, userIds, jdbcBatchSize, (ps, userId) -> {
+            ps.setLong(1, courseId);
+            ps.setObject(2, userId);
+            ps.setString(3, status);
+        });
+
+        int position = 0;
+        for (int[] batch : updateCounts) {
+            for (int updateCount : batch) {
+                if (updateCount == Statement.SUCCESS_NO_INFO) {
+                    // Rewritten batches (reWriteBatchedInserts) do not report per-row counts
+                    throw new IllegalStateException("Batch enrollment requires per-row update counts");
+                }
+
+                inserted[position++] = updateCount > 0;
+            }
+
+        }
+
+        return inserted;
+    }
+}
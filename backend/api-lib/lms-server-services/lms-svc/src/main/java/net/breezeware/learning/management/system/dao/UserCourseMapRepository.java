@@ -1,20 +1,36 @@
 package net.breezeware.learning.management.system.dao;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import net.breezeware.dynamo.generics.crud.dao.GenericRepository;
 import net.breezeware.learning.management.system.entity.UserCourseMap;
 
 @Repository
-public interface UserCourseMapRepository extends GenericRepository<UserCourseMap> {
+public interface UserCourseMapRepository
+        extends GenericRepository<UserCourseMap>, UserCourseMapBatchRepository {
 
+    @EntityGraph(UserCourseMap.WITH_COURSE_AND_USER)
     List<UserCourseMap> findByUserUniqueId(UUID userId);
 
+    @EntityGraph(UserCourseMap.WITH_COURSE_AND_USER)
     List<UserCourseMap> findByCourseId(long courseId);
 
+    @EntityGraph(UserCourseMap.WITH_COURSE_AND_USER)
     Optional<UserCourseMap> findByCourseIdAndUserUniqueId(long courseId, UUID userId);
+
+    /**
+     * Resolves which of the given user IDs exist, in a single query.
+     * @param  userIds the unique IDs of the users
+     * @return         the unique IDs of the users that exist
+     */
+    @Query(value = "SELECT u.unique_id FROM dynamo.\"user\" u WHERE u.unique_id IN (:userIds)", nativeQuery = true)
+    List<UUID> findExistingUserIds(@Param("userIds") Collection<UUID> userIds);
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package net.breezeware.learning.management.system.dao;
+
+import java.util.List;
+
+import net.breezeware.learning.management.system.entity.VectorStore;
+
+/**
+ * Bulk write operations for {@link VectorStore} entries that bypass the
+ * persistence context.
+ */
+public interface VectorStoreBatchRepository {
+
+    /**
+     * Inserts the given entries with JDBC batch statements. The entries are not
+     * attached to the persistence context and their IDs are assigned by the
+     * database.
+     * @param vectorStores The entries to insert.
+     */
+    void batchInsert(List<VectorStore> vectorStores);
+}
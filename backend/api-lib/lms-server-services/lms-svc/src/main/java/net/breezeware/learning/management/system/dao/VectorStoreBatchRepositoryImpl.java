@@ -0,0 +1,64 @@
+package net.breezeware.learning.management.system.dao;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import net.breezeware.learning.management.system.entity.VectorStore;
+
+/**
+ * JDBC implementation of {@link VectorStoreBatchRepository}. Embeddings are
+ * bound as pgvector text literals and cast in SQL, so one statement is prepared
+ * and executed in batches of {@code lms.embedding.batch.jdbc-batch-size} rows.
+ */
+public class VectorStoreBatchRepositoryImpl implements VectorStoreBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO lms_svc.vector_store "
+            + "(unique_id, content, embedding, reference, chunk_key, content_hash, created_on, modified_on) "
+            + "VALUES (?, ?, CAST(? AS vector), ?, ?, ?, now(), now())";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${lms.embedding.batch.jdbc-batch-size:100}")
+    int jdbcBatchSize;
+
+    public VectorStoreBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void batchInsert(List<VectorStore> vectorStores) {
+        if (vectorStores.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, vectorStores, jdbcBatchSize, (ps, vectorStore) -> {
+            ps.setObject(1, vectorStore.getUniqueId());
+            ps.setString(2, vectorStore.getContent());
+            ps.setString(3, toVectorLiteral(vectorStore.getEmbedding()));
+            ps.setObject(4, vectorStore.getReference());
+            ps.setString(5, vectorStore.getChunkKey());
+            ps.setString(6, vectorStore.getContentHash());
+        });
+    }
+
+    /**
+     * Formats an embedding in the pgvector text representation,
+     * {@code [x1,x2,...]}.
+     * @param  embedding The embedding to format.
+     * @return           The vector literal.
+     */
+    private static String toVectorLiteral(float[] embedding) {
+        StringBuilder literal = new StringBuilder(embedding.length * 12).append('[');
+        for (int i = 0; i < embedding.length; i++) {
+            if (i > 0) {
+                literal.append(',');
+            }
+
+            literal.append(embedding[i]);
+        }
+
+        return literal.append(']').toString();
+    }
+}
@@ -0,0 +1,16 @@
+package net.breezeware.learning.management.system.dao;
+
+import java.util.UUID;
+
+/**
+ * Projection of the chunk bookkeeping columns of a vector store entry, used to
+ * decide which chunks need re-embedding without loading their embeddings.
+ */
+public interface VectorStoreChunk {
+
+    UUID getUniqueId();
+
+    String getChunkKey();
+
+    String getContentHash();
+}
@@ -0,0 +1,22 @@
+package net.breezeware.learning.management.system.dao;
+
+import java.util.UUID;
+
+/**
+ * Projection of a vector search result. Carries only what retrieval needs, so
+ * the embedding column is never read or materialized for search results.
+ */
+public interface VectorStoreMatch {
+
+    UUID getUniqueId();
+
+    UUID getReference();
+
+    String getContent();
+
+    /**
+     * Returns the cosine distance between the entry and the query embedding.
+     * @return the cosine distance
+     */
+    double getDistance();
+}
@@ -1,5 +1,6 @@
 package net.breezeware.learning.management.system.dao;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,20 +16,183 @@ import jakarta.transaction.Transactional;
 
 /**
  * Repository interface for managing VectorStore entities. Provides standard
- * CRUD operations and additional custom queries.
+ * CRUD operations, additional custom queries and JDBC batch inserts.
  */
 @Repository
-public interface VectorStoreRepository extends GenericRepository<VectorStore> {
+public interface VectorStoreRepository extends GenericRepository<VectorStore>, VectorStoreBatchRepository {
 
     /**
-     * Finds relevant documents based on vector similarity. Uses PostgreSQL's vector
-     * operations to calculate the distance.
-     * @param  embedding The query embedding for similarity search.
-     * @return           A list of VectorStore entities ordered by relevance.
+     * Finds the nearest documents to the given embedding using PostgreSQL's cosine
+     * distance operator. The query is shaped as {@code ORDER BY distance LIMIT k}
+     * so that the HNSW index on the embedding column is used instead of a full
+     * table scan, and selects only the columns of {@link VectorStoreMatch} so the
+     * embeddings of the results are never transferred.
+     * @param  embedding   The query embedding for similarity search.
+     * @param  maxDistance The maximum cosine distance a document may have to be
+     *                     returned.
+     * @param  topK        The maximum number of documents to return.
+     * @return             A list of matches ordered by relevance.
      */
-    @Query(value = "SELECT *, embedding <=> CAST(:embedding AS vector) AS distance " + "FROM lms_svc.vector_store "
-            + "ORDER BY distance", nativeQuery = true)
-    List<VectorStore> findRelevantDocuments(@Param("embedding") float[] embedding);
+    @Query(value = "SELECT unique_id AS \"uniqueId\", reference AS \"reference\", content AS \"content\", "
+            + "embedding <=> CAST(:embedding AS vector) AS \"distance\" FROM lms_svc.vector_store "
+            + "WHERE embedding <=> CAST(:embedding AS vector) <= :maxDistance "
+            + "ORDER BY embedding <=> CAST(:embedding AS vector) LIMIT :topK", nativeQuery = true)
+    List<VectorStoreMatch> findRelevantDocuments(@Param("embedding") float[] embedding,
+            @Param("maxDistance") double maxDistance, @Param("topK") int topK);
+
+    /**
+     * Sets {@code hnsw.ef_search} for the current transaction only. Larger values
+     * improve recall of the HNSW index at the cost of latency.
+     * @param  efSearch The size of the dynamic candidate list used by the index.
+     * @return          The applied setting.
+     */
+    @Query(value = "SELECT set_config('hnsw.ef_search', :efSearch, true)", nativeQuery = true)
+    String setHnswEfSearch(@Param("efSearch") String efSearch);
+
+    /**
+     * Finds the nearest documents to the given embedding, optionally tuning the
+     * HNSW search for this query. Both statements run in the same transaction so
+     * that the transaction-local {@code ef_search} applies to the search.
+     * @param  embedding   The query embedding for similarity search.
+     * @param  maxDistance The maximum cosine distance a document may have to be
+     *                     returned.
+     * @param  topK        The maximum number of documents to return.
+     * @param  efSearch    The HNSW {@code ef_search} value, or a value less than
+     *                     or equal to zero to keep the server default.
+     * @return             A list of matches ordered by relevance.
+     */
+    @Transactional
+    default List<VectorStoreMatch> findRelevantDocuments(float[] embedding, double maxDistance, int topK, int efSearch) {
+        if (efSearch > 0) {
+            setHnswEfSearch(String.valueOf(efSearch));
+        }
+
+        return findRelevantDocuments(embedding, maxDistance, topK);
+    }
+
+    /**
+     * Finds the nearest documents using the half-precision HNSW index for a coarse
+     * candidate list, then re-ranks the candidates by their full-precision cosine
+     * distance.
+     * @param  embedding   The query embedding for similarity search.
+     * @param  maxDistance The maximum cosine distance a document may have to be
+     *                     returned.
+     * @param  topK        The maximum number of documents to return.
+     * @param  candidates  The number of candidates read from the index.
+     * @return             A list of matches ordered by exact relevance.
+     */
+    @Query(value = "SELECT unique_id AS \"uniqueId\", reference AS \"reference\", content AS \"content\", "
+            + "distance AS \"distance\" FROM (SELECT unique_id, reference, content, "
+            + "embedding <=> CAST(:embedding AS vector) AS distance FROM lms_svc.vector_store "
+            + "ORDER BY embedding::halfvec(1536) <=> CAST(CAST(:embedding AS vector) AS halfvec(1536)) "
+            + "LIMIT :candidates) candidate WHERE distance <= :maxDistance ORDER BY distance LIMIT :topK",
+            nativeQuery = true)
+    List<VectorStoreMatch> findRelevantDocumentsHalfvec(@Param("embedding") float[] embedding,
+            @Param("maxDistance") double maxDistance, @Param("topK") int topK,
+            @Param("candidates") int candidates);
+
+    /**
+     * Finds the nearest documents using the binary quantized HNSW index (Hamming
+     * distance) for a coarse candidate list, then re-ranks the candidates by their
+     * full-precision cosine distance.
+     * @param  embedding   The query embedding for similarity search.
+     * @param  maxDistance The maximum cosine distance a document may have to be
+     *                     returned.
+     * @param  topK        The maximum number of documents to return.
+     * @param  candidates  The number of candidates read from the index.
+     * @return             A list of matches ordered by exact relevance.
+     */
+    @Query(value = "SELECT unique_id AS \"uniqueId\", reference AS \"reference\", content AS \"content\", "
+            + "distance AS \"distance\" FROM (SELECT unique_id, reference, content, "
+            + "embedding <=> CAST(:embedding AS vector) AS distance FROM lms_svc.vector_store "
+            + "ORDER BY binary_quantize(embedding)::bit(1536) <~> binary_quantize(CAST(:embedding AS vector)) "
+            + "LIMIT :candidates) candidate WHERE distance <= :maxDistance ORDER BY distance LIMIT :topK",
+            nativeQuery = true)
+    List<VectorStoreMatch> findRelevantDocumentsBinary(@Param("embedding") float[] embedding,
+            @Param("maxDistance") double maxDistance, @Param("topK") int topK,
+            @Param("candidates") int candidates);
+
+    /**
+     * Disables index scans for the current transaction only, forcing an exact
+     * sequential scan.
+     * @return The applied setting.
+     */
+    @Query(value = "SELECT set_config('enable_indexscan', 'off', true)", nativeQuery = true)
+    String disableIndexScans();
+
+    /**
+     * Finds the exact nearest documents by scanning every embedding. Used as the
+     * ground truth when sampling the recall of the approximate searches.
+     * @param  embedding   The query embedding for similarity search.
+     * @param  maxDistance The maximum cosine distance a document may have to be
+     *                     returned.
+     * @param  topK        The maximum number of documents to return.
+     * @return             A list of matches ordered by relevance.
+     */
+    @Transactional
+    default List<VectorStoreMatch> findExactDocuments(float[] embedding, double maxDistance, int topK) {
+        disableIndexScans();
+        return findRelevantDocuments(embedding, maxDistance, topK);
+    }
+
+    /**
+     * Finds the nearest documents to the given embedding with a quantized index
+     * and an exact re-rank, optionally tuning the HNSW search. The
+     * {@code ef_search} value is raised to at least the number of candidates so
+     * that the index can return all of them.
+     * @param  embedding    The query embedding for similarity search.
+     * @param  maxDistance  The maximum cosine distance a document may have to be
+     *                      returned.
+     * @param  topK         The maximum number of documents to return.
+     * @param  candidates   The number of candidates read from the index.
+     * @param  efSearch     The HNSW {@code ef_search} value, or a value less than
+     *                      or equal to zero to keep the server default.
+     * @param  quantization {@code halfvec} or {@code binary}.
+     * @return              A list of matches ordered by exact relevance.
+     */
+    @Transactional
+    default List<VectorStoreMatch> findRelevantDocumentsQuantized(float[] embedding, double maxDistance, int topK,
+            int candidates, int efSearch, String quantization) {
+        setHnswEfSearch(String.valueOf(Math.max(efSearch, candidates)));
+        return switch (quantization) {
+        case "halfvec" -> findRelevantDocumentsHalfvec(embedding, maxDistance, topK, candidates);
+        case "binary" -> findRelevantDocumentsBinary(embedding, maxDistance, topK, candidates);
+        default -> throw new IllegalArgumentException("Unsupported quantization: " + quantization);
+        };
+    }
+
+    /**
+     * Finds the chunk keys and content hashes stored for a reference.
+     * @param  reference The reference whose chunks are returned.
+     * @return           The stored chunks, without their embeddings.
+     */
+    @Query("SELECT vs.uniqueId AS uniqueId, vs.chunkKey AS chunkKey, vs.contentHash AS contentHash "
+            + "FROM VectorStore vs WHERE vs.reference = :reference")
+    List<VectorStoreChunk> findChunksByReference(@Param("reference") UUID reference);
+
+    /**
+     * Finds the unique IDs of every stored entry.
+     * @return The unique IDs, without the entries themselves.
+     */
+    @Query("SELECT vs.uniqueId FROM VectorStore vs")
+    List<UUID> findAllUniqueIds();
+
+    /**
+     * Finds the VectorStore entities with the specified unique IDs.
+     * @param  uniqueIds The unique IDs of the entries to return.
+     * @return           The entries found, in no particular order.
+     */
+    @Query("SELECT vs FROM VectorStore vs WHERE vs.uniqueId IN :uniqueIds")
+    List<VectorStore> findByUniqueIds(@Param("uniqueIds") Collection<UUID> uniqueIds);
+
+    /**
+     * Deletes the VectorStore entities with the specified unique IDs.
+     * @param uniqueIds The unique IDs of the entries to delete.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM VectorStore vs WHERE vs.uniqueId IN :uniqueIds")
+    void deleteByUniqueIds(@Param("uniqueIds") Collection<UUID> uniqueIds);
 
     /**
      * Deletes VectorStore entities with the specified reference.
@@ -18,7 +18,10 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
@@ -27,9 +30,12 @@ import jakarta.validation.constraints.Size;
  * table in the "lms_svc" schema.
  */
 @Entity
+@NamedEntityGraph(name = Course.WITH_AUTHOR, attributeNodes = @NamedAttributeNode("author"))
 @Table(name = "course", schema = "lms_svc",
         indexes = { @Index(name = "idx_course_unique_id", columnList = "unique_id"),
-            @Index(name = "idx_course_name", columnList = "name") })
+            @Index(name = "idx_course_name", columnList = "name"),
+            @Index(name = "idx_course_status_id", columnList = "status, id"),
+            @Index(name = "idx_course_author_id_id", columnList = "author_id, id") })
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -37,6 +43,11 @@ import jakarta.validation.constraints.Size;
 @EqualsAndHashCode(callSuper = true)
 public class Course extends GenericEntity {
 
+    /**
+     * Fetch plan loading the author together with the course.
+     */
+    public static final String WITH_AUTHOR = "Course.withAuthor";
+
     @Schema(example = "Google", description = "The name of the course.")
     @NotBlank(message = "Course name cannot be blank")
     @Size(max = 255, message = "Course name must be at most 255 characters")
@@ -56,6 +67,21 @@ public class Course extends GenericEntity {
     @Column(name = "photo_key")
     private String photoKey;
 
+    @Schema(example = "Course/29e9b2c0-2040-4c4e-8320-5c62067db1ad-thumbnail.jpg",
+            description = "The photoKey of the thumbnail variant of the course photo.")
+    @Column(name = "thumbnail_key")
+    private String thumbnailKey;
+
+    @Schema(example = "Course/29e9b2c0-2040-4c4e-8320-5c62067db1ad-card.jpg",
+            description = "The photoKey of the catalog card variant of the course photo.")
+    @Column(name = "card_key")
+    private String cardKey;
+
+    @Schema(example = "Course/29e9b2c0-2040-4c4e-8320-5c62067db1ad-hero.jpg",
+            description = "The photoKey of the detail page variant of the course photo.")
+    @Column(name = "hero_key")
+    private String heroKey;
+
     @Schema(description = "The status of the course, e.g., 'published', 'deleted'.")
     @Column(name = "status")
     private String status;
@@ -64,4 +90,9 @@ public class Course extends GenericEntity {
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "author_id", referencedColumnName = "unique_id", nullable = false)
     private User author;
+
+    @Schema(example = "3", description = "The version of the course, incremented on every update.")
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
 }
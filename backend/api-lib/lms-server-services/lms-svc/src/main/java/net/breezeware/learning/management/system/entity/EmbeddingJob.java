@@ -0,0 +1,53 @@
+package net.breezeware.learning.management.system.entity;
+
+import java.time.Instant;
+
+import net.breezeware.dynamo.generics.crud.entity.GenericEntity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Entity class representing a pending embedding refresh for a course. Rows are
+ * written in the same transaction as the course or topic change (transactional
+ * outbox) and drained asynchronously by the embedding worker.
+ */
+@Entity
+@Table(name = "embedding_job", schema = "lms_svc",
+        indexes = { @Index(name = "idx_embedding_job_status_next_attempt", columnList = "status, next_attempt_on") })
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@EqualsAndHashCode(callSuper = true)
+public class EmbeddingJob extends GenericEntity {
+
+    @Schema(example = "1", description = "The ID of the course whose embeddings are refreshed.")
+    @Column(name = "course_id", nullable = false)
+    private long courseId;
+
+    @Schema(example = "pending", description = "The job status: pending, processing, retrying, completed, superseded or dead.")
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    @Schema(example = "1", description = "The number of processing attempts made so far.")
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Schema(description = "The earliest time the job may be processed again.")
+    @Column(name = "next_attempt_on", nullable = false)
+    private Instant nextAttemptOn;
+
+    @Schema(description = "The error of the last failed attempt.")
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+}
@@ -15,12 +15,16 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 
 @Entity
+@NamedEntityGraph(name = Topic.WITH_COURSE, attributeNodes = @NamedAttributeNode("course"))
 @Table(name = "topic", schema = "lms_svc",
         indexes = { @Index(name = "idx_topic_course_id", columnList = "course_id"),
             @Index(name = "idx_topic_name", columnList = "name") })
@@ -31,6 +35,11 @@ import jakarta.validation.constraints.Size;
 @EqualsAndHashCode(callSuper = true)
 public class Topic extends GenericEntity {
 
+    /**
+     * Fetch plan loading the course together with the topic.
+     */
+    public static final String WITH_COURSE = "Topic.withCourse";
+
     @Schema(example = "Introduction to Java", description = "The name of the topic.")
     @NotBlank(message = "Topic name cannot be blank")
     @Size(max = 255, message = "Topic name must be at most 255 characters")
@@ -51,4 +60,9 @@ public class Topic extends GenericEntity {
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "course_id", referencedColumnName = "id", nullable = false)
     private Course course;
+
+    @Schema(example = "3", description = "The version of the topic, incremented on every update.")
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
 }
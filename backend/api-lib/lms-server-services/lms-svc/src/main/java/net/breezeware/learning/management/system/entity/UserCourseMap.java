@@ -13,16 +13,29 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 /**
  * Entity class representing the mapping between a User and a Course. This table
  * stores enrollment information and status for each user-course pair.
  */
 @Entity
-@Table(name = "user_course_map", schema = "lms_svc")
+@NamedEntityGraph(name = UserCourseMap.WITH_COURSE_AND_USER,
+        attributeNodes = { @NamedAttributeNode(value = "course", subgraph = "course"),
+            @NamedAttributeNode("user") },
+        subgraphs = @NamedSubgraph(name = "course", attributeNodes = @NamedAttributeNode("author")))
+@Table(name = "user_course_map", schema = "lms_svc",
+        indexes = { @Index(name = "idx_user_course_map_course_id", columnList = "course_id"),
+            @Index(name = "idx_user_course_map_user_id", columnList = "user_id") },
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_course_map_course_id_user_id",
+                columnNames = { "course_id", "user_id" }))
 @Data
 @Builder
 @AllArgsConstructor
@@ -30,6 +43,12 @@ import jakarta.persistence.Table;
 @EqualsAndHashCode(callSuper = true)
 public class UserCourseMap extends GenericEntity {
 
+    /**
+     * Fetch plan loading the course, its author and the user together with the
+     * enrollment.
+     */
+    public static final String WITH_COURSE_AND_USER = "UserCourseMap.withCourseAndUser";
+
     @Schema(example = "1", description = "The course associated with the enrollment")
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "course_id", referencedColumnName = "id", nullable = false)
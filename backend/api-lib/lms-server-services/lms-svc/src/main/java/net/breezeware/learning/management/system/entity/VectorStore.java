@@ -14,6 +14,7 @@ import lombok.NoArgsConstructor;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
 import java.util.UUID;
@@ -24,7 +25,8 @@ import java.util.UUID;
  * vector embeddings along with associated content and references.
  */
 @Entity
-@Table(name = "vector_store", schema = "lms_svc")
+@Table(name = "vector_store", schema = "lms_svc",
+        indexes = { @Index(name = "idx_vector_store_reference", columnList = "reference") })
 @Data
 @EqualsAndHashCode(callSuper = false)
 @AllArgsConstructor
@@ -61,4 +63,17 @@ public class VectorStore extends GenericEntity {
     @Column(name = "reference", nullable = false)
     private UUID reference;
 
+    /**
+     * Identifies the chunk within its reference, e.g. {@code course:0} or
+     * {@code topic:12:1}.
+     */
+    @Column(name = "chunk_key")
+    private String chunkKey;
+
+    /**
+     * SHA-256 hash of the content, used to skip re-embedding unchanged chunks.
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
 }
@@ -0,0 +1,126 @@
+// Open-model load test of /api/chat and /api/courses. Both endpoints receive a
+// fixed arrival rate, so a server that cannot keep up shows it as dropped
+// iterations and a growing p99 instead of silently slowing the test down.
+//
+//   k6 run -e BASE_URL=http://localhost:8084 -e TOKEN=<jwt> -e MODE=virtual chat-and-courses.js
+//
+// Variables: BASE_URL, TOKEN, MODE (label of the results file), CHAT_RATE and
+// COURSES_RATE (requests per second), DURATION, WARMUP.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8084';
+const MODE = __ENV.MODE || 'platform';
+const CHAT_RATE = Number(__ENV.CHAT_RATE || 400);
+const COURSES_RATE = Number(__ENV.COURSES_RATE || 1000);
+const DURATION = __ENV.DURATION || '3m';
+const WARMUP = __ENV.WARMUP || '30s';
+
+const PROMPTS = [
+  'Explain polymorphism in Java.',
+  'What is the difference between an interface and an abstract class?',
+  'How does garbage collection work in the JVM?',
+  'When should I use a HashMap instead of a TreeMap?',
+  'What does the volatile keyword guarantee?',
+];
+
+const params = {
+  headers: __ENV.TOKEN ? { Authorization: `Bearer ${__ENV.TOKEN}` } : {},
+};
+
+function scenario(exec, rate) {
+  return {
+    executor: 'constant-arrival-rate',
+    exec,
+    rate,
+    timeUnit: '1s',
+    duration: DURATION,
+    startTime: WARMUP,
+    preAllocatedVUs: rate,
+    maxVUs: rate * 4,
+  };
+}
+
+export const options = {
+  discardResponseBodies: true,
+  scenarios: {
+    // Fills connection pools, JIT-compiles the hot paths and builds the catalog snapshot
+    warmup: {
+      executor: 'constant-vus',
+      exec: 'warmup',
+      vus: 20,
+      duration: WARMUP,
+      tags: { warmup: 'true' },
+    },
+    chat: scenario('chat', CHAT_RATE),
+    courses: scenario('courses', COURSES_RATE),
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  // Sub-metrics per scenario, so the summary reports each endpoint separately
+  thresholds: {
+    'http_req_duration{scenario:chat}': ['p(99)>=0'],
+    'http_req_duration{scenario:courses}': ['p(99)>=0'],
+    'http_reqs{scenario:chat}': ['count>=0'],
+    'http_reqs{scenario:courses}': ['count>=0'],
+    'http_req_failed{scenario:chat}': ['rate>=0'],
+    'http_req_failed{scenario:courses}': ['rate>=0'],
+    'dropped_iterations{scenario:chat}': ['count>=0'],
+    'dropped_iterations{scenario:courses}': ['count>=0'],
+  },
+};
+
+export function warmup() {
+  http.get(`${BASE_URL}/api/courses?limit=50`, params);
+  http.get(`${BASE_URL}/api/chat?prompt=${encodeURIComponent(PROMPTS[0])}`, params);
+}
+
+export function chat() {
+  const prompt = PROMPTS[Math.floor(Math.random() * PROMPTS.length)];
+  const response = http.get(`${BASE_URL}/api/chat?prompt=${encodeURIComponent(prompt)}`, params);
+  check(response, { 'chat 200': (r) => r.status === 200 });
+}
+
+export function courses() {
+  const response = http.get(`${BASE_URL}/api/courses?limit=50`, params);
+  check(response, { 'courses 200': (r) => r.status === 200 });
+}
+
+function value(data, metric, stat) {
+  const entry = data.metrics[metric];
+  return entry ? entry.values[stat] || 0 : 0;
+}
+
+export function handleSummary(data) {
+  const seconds = parseDuration(DURATION);
+  const result = { mode: MODE, duration: DURATION, endpoints: {} };
+  for (const name of ['chat', 'courses']) {
+    const requests = value(data, `http_reqs{scenario:${name}}`, 'count');
+    result.endpoints[name] = {
+      targetRate: name === 'chat' ? CHAT_RATE : COURSES_RATE,
+      throughput: Number((requests / seconds).toFixed(1)),
+      p50Ms: Number(value(data, `http_req_duration{scenario:${name}}`, 'p(50)').toFixed(1)),
+      p99Ms: Number(value(data, `http_req_duration{scenario:${name}}`, 'p(99)').toFixed(1)),
+      errorRate: Number(value(data, `http_req_failed{scenario:${name}}`, 'rate').toFixed(4)),
+      droppedIterations: value(data, `dropped_iterations{scenario:${name}}`, 'count'),
+    };
+  }
+
+  const lines = Object.entries(result.endpoints).map(([name, e]) =>
+    `${MODE.padEnd(9)} ${name.padEnd(8)} ${String(e.throughput).padStart(8)} req/s  `
+      + `p50 ${String(e.p50Ms).padStart(8)} ms  p99 ${String(e.p99Ms).padStart(8)} ms  `
+      + `errors ${(e.errorRate * 100).toFixed(2)}%  dropped ${e.droppedIterations}`);
+
+  return {
+    stdout: `\n${lines.join('\n')}\n`,
+    [`results/${MODE}.json`]: JSON.stringify(result, null, 2),
+  };
+}
+
+function parseDuration(duration) {
+  const match = /^(\d+)(s|m|h)$/.exec(duration);
+  if (!match) {
+    throw new Error(`Unsupported DURATION ${duration}; use e.g. 90s, 3m or 1h`);
+  }
+
+  return Number(match[1]) * { s: 1, m: 60, h: 3600 }[match[2]];
+}
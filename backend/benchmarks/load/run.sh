@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# Runs chat-and-courses.js against api-app in platform-thread and in
+# virtual-thread mode, restarting the application between runs so that both
+# start from the same state. Requires a Java 21 runtime, k6, the benchmark
+# compose profile (database and OpenAI stub) and a built api-app jar.
+#
+#   TOKEN=<jwt> ./run.sh            # both modes
+#   TOKEN=<jwt> ./run.sh virtual    # one mode
+set -euo pipefail
+
+cd "$(dirname "$0")"
+JAR=${JAR:-$(ls ../../api-app/target/api-app-*.jar | grep -v original | head -n 1)}
+PORT=${PORT:-8084}
+MANAGEMENT_PORT=${MANAGEMENT_PORT:-8085}
+# Pins the OpenAI bulkheads well above the chats in flight at the offered load
+# (CHAT_RATE x stub latency), so that both modes measure serving, not shedding
+BULKHEAD_LIMIT=${BULKHEAD_LIMIT:-2000}
+MODES=${*:-platform virtual}
+
+mkdir -p results
+
+for mode in $MODES; do
+  case "$mode" in
+    platform) virtual=false ;;
+    virtual) virtual=true ;;
+    *) echo "Unknown mode '$mode'; use platform or virtual" >&2; exit 1 ;;
+  esac
+
+  echo "Starting api-app in $mode-thread mode"
+  SPRING_THREADS_VIRTUAL_ENABLED=$virtual \
+  SPRING_AI_OPENAI_BASE_URL=${SPRING_AI_OPENAI_BASE_URL:-http://localhost:8089} \
+  SPRING_AI_OPENAI_API_KEY=${SPRING_AI_OPENAI_API_KEY:-benchmark} \
+  LMS_CHAT_ANSWER_CACHE_ENABLED=false \
+  LMS_QUERY_EMBEDDING_CACHE_ENABLED=false \
+  LMS_QUERY_BUDGET_ENABLED=false \
+  LMS_OPENAI_BULKHEAD_CHAT_INITIAL_LIMIT=$BULKHEAD_LIMIT \
+  LMS_OPENAI_BULKHEAD_CHAT_MIN_LIMIT=$BULKHEAD_LIMIT \
+  LMS_OPENAI_BULKHEAD_CHAT_MAX_LIMIT=$BULKHEAD_LIMIT \
+  LMS_OPENAI_BULKHEAD_CHAT_MAX_QUEUED=$BULKHEAD_LIMIT \
+  LMS_OPENAI_BULKHEAD_EMBEDDING_INITIAL_LIMIT=$BULKHEAD_LIMIT \
+  LMS_OPENAI_BULKHEAD_EMBEDDING_MIN_LIMIT=$BULKHEAD_LIMIT \
+  LMS_OPENAI_BULKHEAD_EMBEDDING_MAX_LIMIT=$BULKHEAD_LIMIT \
+  LMS_OPENAI_BULKHEAD_EMBEDDING_MAX_QUEUED=$BULKHEAD_LIMIT \
+    java ${JAVA_OPTS:--Xms1g -Xmx1g} -jar "$JAR" --server.port="$PORT" \
+      --management.server.port="$MANAGEMENT_PORT" > "results/$mode-app.log" 2>&1 &
+  app=$!
+  trap 'kill $app 2>/dev/null || true' EXIT
+
+  until curl -sf "http://localhost:$MANAGEMENT_PORT/actuator/health" > /dev/null; do
+    if ! kill -0 $app 2>/dev/null; then
+      echo "api-app exited; see results/$mode-app.log" >&2
+      exit 1
+    fi
+    sleep 2
+  done
+
+  k6 run --quiet -e BASE_URL="http://localhost:$PORT" -e TOKEN="${TOKEN:-}" -e MODE="$mode" chat-and-courses.js
+
+  kill $app
+  wait $app 2>/dev/null || true
+  trap - EXIT
+done
@@ -0,0 +1,82 @@
+package net.breezeware.learning.management.system.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import net.breezeware.learning.management.system.dto.CourseDto;
+import net.breezeware.learning.management.system.mapper.CourseMapper;
+
+/**
+ * Serialization of a page of the course catalog: writing a list of
+ * {@link CourseDto}s with Jackson on every request, against joining entries
+ * that were serialized once, as the catalog snapshot does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CatalogSerializationBenchmark {
+
+    @Param({ "50", "200" })
+    int pageSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<CourseDto> courseDtos;
+    private List<byte[]> serializedEntries;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        CourseMapper courseMapper = Mappers.getMapper(CourseMapper.class);
+        courseDtos = new ArrayList<>(pageSize);
+        serializedEntries = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            CourseDto courseDto = courseMapper.courseToCourseDto(Fixtures.course(i), "https://cdn.example.com/");
+            courseDto.setLearnersEnrolled(i * 7L);
+            courseDtos.add(courseDto);
+            serializedEntries.add(objectMapper.writeValueAsBytes(courseDto));
+        }
+
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(courseDtos);
+    }
+
+    @Benchmark
+    public byte[] joinPreSerializedEntries() {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write('[');
+        for (int i = 0; i < serializedEntries.size(); i++) {
+            if (i > 0) {
+                body.write(',');
+            }
+
+            body.writeBytes(serializedEntries.get(i));
+        }
+
+        body.write(']');
+        return body.toByteArray();
+    }
+}
@@ -0,0 +1,82 @@
+package net.breezeware.learning.management.system.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.converter.ListOutputConverter;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.breezeware.learning.management.system.dao.VectorStoreMatch;
+import net.breezeware.learning.management.system.service.impl.ChatPromptFactory;
+
+/**
+ * The local work of {@code EmbeddingServiceImpl.createChatResponse} around the
+ * chat model call: assembling the prompt from the retrieved documents and
+ * converting the completion into the response list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ChatResponseBenchmark {
+
+    private static final String MESSAGE = "Explain polymorphism in Java.";
+
+    private static final String COMPLETION = "Polymorphism lets one interface stand for many concrete types, "
+            + "code written against the interface works with every implementation, the implementation to run is "
+            + "chosen at runtime by dynamic dispatch, overriding methods in subclasses is the usual way to use it, "
+            + "overloading is resolved at compile time instead";
+
+    @Param({ "5", "20" })
+    int documentCount;
+
+    private final ChatPromptFactory chatPromptFactory = new ChatPromptFactory();
+    private final ListOutputConverter sharedConverter = new ListOutputConverter(new DefaultConversionService());
+
+    private List<VectorStoreMatch> documents;
+
+    @Setup
+    public void setUp() {
+        documents = Fixtures.documents(documentCount);
+    }
+
+    @Benchmark
+    public Prompt createPrompt() {
+        return chatPromptFactory.createPrompt(MESSAGE, documents);
+    }
+
+    /**
+     * Converts the completion as {@code createChatResponse} does, with a new
+     * converter and conversion service per response.
+     * @return the response text
+     */
+    @Benchmark
+    public String convertCompletion() {
+        ListOutputConverter listOutputConverter = new ListOutputConverter(new DefaultConversionService());
+        return listOutputConverter.convert(COMPLETION).toString();
+    }
+
+    /**
+     * Converts the completion with a converter shared across responses.
+     * @return the response text
+     */
+    @Benchmark
+    public String convertCompletionWithSharedConverter() {
+        return sharedConverter.convert(COMPLETION).toString();
+    }
+}
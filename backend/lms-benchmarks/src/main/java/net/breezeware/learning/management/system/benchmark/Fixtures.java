@@ -0,0 +1,116 @@
+package net.breezeware.learning.management.system.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import net.breezeware.dynamo.usermanagement.entity.User;
+import net.breezeware.learning.management.system.dao.VectorStoreMatch;
+import net.breezeware.learning.management.system.entity.Course;
+import net.breezeware.learning.management.system.entity.Topic;
+
+/**
+ * Deterministic test data shaped like production rows, so that runs are
+ * comparable across machines and commits.
+ */
+final class Fixtures {
+
+    private static final String DESCRIPTION = "This course provides an introduction to cloud services and "
+            + "architecture, covering compute, storage, networking and the operational practices needed to run "
+            + "production workloads.";
+
+    private static final String CHUNK = "Polymorphism lets one interface stand for many concrete types. Code "
+            + "written against the interface works with every implementation, and the implementation to run is "
+            + "chosen at runtime by dynamic dispatch. ";
+
+    private Fixtures() {
+    }
+
+    static Course course(int index) {
+        User author = new User();
+        author.setUniqueId(new UUID(1L, index % 20));
+        Course course = Course.builder().name("Course " + index).uniqueId(new UUID(2L, index))
+                .description(DESCRIPTION).photoKey("Course/%s.png".formatted(new UUID(3L, index)))
+                .thumbnailKey("Course/%s-thumbnail.jpg".formatted(new UUID(3L, index)))
+                .cardKey("Course/%s-card.jpg".formatted(new UUID(3L, index)))
+                .heroKey("Course/%s-hero.jpg".formatted(new UUID(3L, index))).status("ACTIVE").author(author)
+                .build();
+        course.setId(index + 1L);
+        return course;
+    }
+
+    static Topic topic(int index, Course course) {
+        Topic topic = Topic.builder().name("Topic " + index).description(DESCRIPTION).duration(40).course(course)
+                .build();
+        topic.setId(index + 1L);
+        return topic;
+    }
+
+    /**
+     * Retrieved documents of roughly the size of one embedding chunk each.
+     * @param  count the number of documents
+     * @return       the documents
+     */
+    static List<VectorStoreMatch> documents(int count) {
+        List<VectorStoreMatch> documents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            documents.add(new Document(new UUID(4L, i), new UUID(5L, i), CHUNK.repeat(10), 0.1 + i * 0.01));
+        }
+
+        return documents;
+    }
+
+    /**
+     * Random unit vectors stored back to back in one array, as in the in-memory
+     * vector index.
+     * @param  count      the number of vectors
+     * @param  dimensions the dimensions of each vector
+     * @param  seed       the random seed
+     * @return            the vectors
+     */
+    static float[] unitVectors(int count, int dimensions, long seed) {
+        Random random = new Random(seed);
+        float[] vectors = new float[count * dimensions];
+        for (int v = 0; v < count; v++) {
+            double norm = 0;
+            for (int d = 0; d < dimensions; d++) {
+                float value = (float) random.nextGaussian();
+                vectors[v * dimensions + d] = value;
+                norm += value * value;
+            }
+
+            norm = Math.sqrt(norm);
+            for (int d = 0; d < dimensions; d++) {
+                vectors[v * dimensions + d] /= (float) norm;
+            }
+
+        }
+
+        return vectors;
+    }
+
+    private record Document(UUID uniqueId, UUID reference, String content, double distance)
+            implements VectorStoreMatch {
+
+        @Override
+        public UUID getUniqueId() {
+            return uniqueId;
+        }
+
+        @Override
+        public UUID getReference() {
+            return reference;
+        }
+
+        @Override
+        public String getContent() {
+            return content;
+        }
+
+        @Override
+        public double getDistance() {
+            return distance;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package net.breezeware.learning.management.system.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import net.breezeware.learning.management.system.dto.CourseDto;
+import net.breezeware.learning.management.system.dto.TopicDto;
+import net.breezeware.learning.management.system.entity.Course;
+import net.breezeware.learning.management.system.entity.Topic;
+import net.breezeware.learning.management.system.mapper.CourseMapper;
+import net.breezeware.learning.management.system.mapper.TopicMapper;
+
+/**
+ * Entity to DTO mapping of courses and topics, as done for every course and
+ * topic response and for each entry of the catalog snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MapperBenchmark {
+
+    private static final String CDN_URL = "https://cdn.example.com/";
+
+    @Param({ "1", "200" })
+    int size;
+
+    private final CourseMapper courseMapper = Mappers.getMapper(CourseMapper.class);
+    private final TopicMapper topicMapper = Mappers.getMapper(TopicMapper.class);
+
+    private List<Course> courses;
+    private List<CourseDto> courseDtos;
+    private List<Topic> topics;
+    private List<TopicDto> topicDtos;
+
+    @Setup
+    public void setUp() {
+        courses = new ArrayList<>(size);
+        topics = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Course course = Fixtures.course(i);
+            courses.add(course);
+            topics.add(Fixtures.topic(i, course));
+        }
+
+        courseDtos = courses.stream().map(courseMapper::courseToCourseDto).toList();
+        topicDtos = topics.stream().map(topicMapper::topicToTopicDto).toList();
+    }
+
+    @Benchmark
+    public void courseToCourseDto(Blackhole blackhole) {
+        for (Course course : courses) {
+            blackhole.consume(courseMapper.courseToCourseDto(course));
+        }
+
+    }
+
+    @Benchmark
+    public void courseToCourseDtoWithCdnUrls(Blackhole blackhole) {
+        for (Course course : courses) {
+            blackhole.consume(courseMapper.courseToCourseDto(course, CDN_URL));
+        }
+
+    }
+
+    @Benchmark
+    public void courseDtoToCourse(Blackhole blackhole) {
+        for (CourseDto courseDto : courseDtos) {
+            blackhole.consume(courseMapper.courseDtoToCourse(courseDto));
+        }
+
+    }
+
+    @Benchmark
+    public void topicToTopicDto(Blackhole blackhole) {
+        for (Topic topic : topics) {
+            blackhole.consume(topicMapper.topicToTopicDto(topic));
+        }
+
+    }
+
+    @Benchmark
+    public void topicDtoToTopic(Blackhole blackhole) {
+        for (TopicDto topicDto : topicDtos) {
+            blackhole.consume(topicMapper.topicDtoToTopic(topicDto));
+        }
+
+    }
+}
@@ -0,0 +1,78 @@
+package net.breezeware.learning.management.system.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.breezeware.learning.management.system.util.VectorMath;
+
+/**
+ * Cosine-distance scoring of 1536-dimension embeddings as done by the
+ * in-memory vector index: one dot product against a normalized query per
+ * stored vector, over vectors held back to back in a single array.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class VectorScoringBenchmark {
+
+    private static final int DIMENSIONS = 1536;
+
+    @Param({ "1000", "20000" })
+    int vectorCount;
+
+    private float[] vectors;
+    private float[] query;
+    private float[] rawQuery;
+
+    @Setup
+    public void setUp() {
+        vectors = Fixtures.unitVectors(vectorCount, DIMENSIONS, 42);
+        rawQuery = Fixtures.unitVectors(1, DIMENSIONS, 7);
+        for (int i = 0; i < rawQuery.length; i++) {
+            rawQuery[i] *= 3;
+        }
+
+        query = VectorMath.normalize(rawQuery);
+    }
+
+    /**
+     * Scores every stored vector and keeps the nearest one.
+     * @return the smallest cosine distance
+     */
+    @Benchmark
+    public double scoreAll() {
+        double nearest = Double.MAX_VALUE;
+        for (int i = 0; i < vectorCount; i++) {
+            double distance = 1 - VectorMath.dot(vectors, i * DIMENSIONS, query);
+            if (distance < nearest) {
+                nearest = distance;
+            }
+
+        }
+
+        return nearest;
+    }
+
+    /**
+     * Normalizes a query embedding, done once per search.
+     * @return the normalized query
+     */
+    @Benchmark
+    public float[] normalizeQuery() {
+        return VectorMath.normalize(rawQuery);
+    }
+}
@@ -1,6 +1,8 @@
 import axios from "axios";
 
 const BASE_APP_URL = import.meta.env.VITE_BASE_URL_LMS;
+// Largest page the course listings serve
+const COURSE_PAGE_LIMIT = 200;
 
 class BackendService {
   login(userName, password) {
@@ -9,8 +11,23 @@ class BackendService {
     );
   }
 
+  // Course listings are paged; follows the X-Next-Cursor header through every
+  // page and resolves to the last response with all courses as its data.
+  async fetchAllCoursePages(url) {
+    const courses = [];
+    let after = null;
+    let response;
+    do {
+      const params = after ? { limit: COURSE_PAGE_LIMIT, after } : { limit: COURSE_PAGE_LIMIT };
+      response = await axios.get(url, { params });
+      courses.push(...response.data);
+      after = response.headers["x-next-cursor"];
+    } while (after);
+    return { ...response, data: courses };
+  }
+
   getCourses() {
-    return axios.get(`${BASE_APP_URL}/api/courses`);
+    return this.fetchAllCoursePages(`${BASE_APP_URL}/api/courses`);
   }
   updateCourse(data, courseId) {
     return axios.put(`${BASE_APP_URL}/api/courses/${courseId}`, data);
@@ -59,7 +76,7 @@ class BackendService {
     return axios.get(`${BASE_APP_URL}/api/courses/${id}/enrolled`);
   }
   fetchAllCoursesForLearners(id){
-    return axios.get(`${BASE_APP_URL}/api/courses/all-course/${id}`);
+    return this.fetchAllCoursePages(`${BASE_APP_URL}/api/courses/all-course/${id}`);
   }
     
 }